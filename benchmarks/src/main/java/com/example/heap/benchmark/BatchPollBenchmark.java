@@ -0,0 +1,65 @@
+package com.example.heap.benchmark;
+
+import com.example.heap.core.ArrayHeapQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+//  k independent polls against pollBatch for growing fractions of the queue; the
+//  fraction where the two curves cross calibrates the switch in ArrayHeapQueue.pollBatch
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class BatchPollBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"0.001", "0.01", "0.05", "0.1", "0.25", "0.5", "0.75", "1.0"})
+    public double fraction;
+
+    private ArrayHeapQueue<Integer> filled;
+
+    private ArrayHeapQueue<Integer> queue;
+
+    private int k;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        filled = new ArrayHeapQueue<>(Integer::compareTo, Distribution.RANDOM.boxedKeys(size, 1));
+        k = (int) (size * fraction);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        queue = filled.clone();
+    }
+
+    @Benchmark
+    public void polls(Blackhole blackhole) {
+        ArrayHeapQueue<Integer> queue = this.queue;
+        for (int i = 0; i < k; i++) {
+            blackhole.consume(queue.poll());
+        }
+    }
+
+    @Benchmark
+    public int pollBatch(Blackhole blackhole) {
+        return queue.pollBatch(k, blackhole::consume);
+    }
+}
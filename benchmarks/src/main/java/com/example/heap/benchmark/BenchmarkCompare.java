@@ -0,0 +1,109 @@
+package com.example.heap.benchmark;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class BenchmarkCompare {
+
+    private static final double DEFAULT_THRESHOLD = 5.0;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("usage: BenchmarkCompare <baseline.json> <current.json> [threshold %]");
+            System.exit(2);
+            return;
+        }
+        Map<String, Score> baseline = read(Paths.get(args[0]));
+        Map<String, Score> current = read(Paths.get(args[1]));
+        double threshold = args.length == 3 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+
+        int regressions = 0;
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            String key = entry.getKey();
+            Score now = entry.getValue();
+            Score before = baseline.get(key);
+            if (before == null) {
+                System.out.printf("%-100s %14.3f %-8s %10s%n", key, now.score, now.unit, "new");
+                continue;
+            }
+            double change = 100.0 * (now.score - before.score) / before.score;
+            //  positive means slower, whatever the benchmark mode
+            double loss = now.higherIsBetter ? -change : change;
+            boolean significant = Math.abs(now.score - before.score) > now.error + before.error;
+            String verdict = "";
+            if (significant && loss > threshold) {
+                verdict = "REGRESSION";
+                regressions++;
+            } else if (significant && loss < -threshold) {
+                verdict = "improvement";
+            }
+            System.out.printf("%-100s %14.3f %-8s %+9.2f%% %s%n", key, now.score, now.unit, change, verdict);
+        }
+        for (String key : baseline.keySet()) {
+            if (!current.containsKey(key)) {
+                System.out.printf("%-100s %14s %-8s %10s%n", key, "", "", "missing");
+            }
+        }
+        System.out.printf("%d regression(s) above %.1f%%%n", regressions, threshold);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> read(Path path) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            for (JsonElement element : JsonParser.parseReader(reader).getAsJsonArray()) {
+                JsonObject result = element.getAsJsonObject();
+                StringBuilder key = new StringBuilder(result.get("benchmark").getAsString());
+                JsonObject params = result.getAsJsonObject("params");
+                if (params != null) {
+                    Map<String, String> sorted = new TreeMap<>();
+                    params.entrySet().forEach(e -> sorted.put(e.getKey(), e.getValue().getAsString()));
+                    sorted.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+                }
+                int threads = result.get("threads").getAsInt();
+                if (threads != 1) {
+                    key.append(" threads=").append(threads);
+                }
+                JsonObject metric = result.getAsJsonObject("primaryMetric");
+                JsonElement error = metric.get("scoreError");
+                scores.put(key.toString(), new Score(
+                        metric.get("score").getAsDouble(),
+                        error.isJsonPrimitive() && error.getAsJsonPrimitive().isNumber() ? error.getAsDouble() : 0.0,
+                        metric.get("scoreUnit").getAsString(),
+                        "thrpt".equals(result.get("mode").getAsString())));
+            }
+        }
+        return scores;
+    }
+
+    private static class Score {
+
+        private final double score;
+
+        private final double error;
+
+        private final String unit;
+
+        private final boolean higherIsBetter;
+
+        private Score(double score, double error, String unit, boolean higherIsBetter) {
+            this.score = score;
+            this.error = error;
+            this.unit = unit;
+            this.higherIsBetter = higherIsBetter;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.heap.benchmark;
+
+import com.example.heap.core.ArrayHeapQueue;
+import com.example.heap.core.CapacityPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+//  per-tenant queues that take a burst and drain back to a small backlog, the retained
+//  bytes of all queues after a cycle are printed at the end of every iteration
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class CapacityPolicyBenchmark {
+
+    private static final int TENANTS = 1000;
+
+    private static final int KEY_COUNT = 1 << 16;
+
+    public enum Policy {
+        DEFAULT(CapacityPolicy.DEFAULT),
+        SHRINKING(CapacityPolicy.DEFAULT.withShrinkThreshold(0.25).withMinCapacity(16));
+
+        final CapacityPolicy policy;
+
+        Policy(CapacityPolicy policy) {
+            this.policy = policy;
+        }
+    }
+
+    @Param({"10000"})
+    public int burst;
+
+    @Param({"DEFAULT", "SHRINKING"})
+    public Policy policy;
+
+    private Integer[] keys;
+
+    private int cursor;
+
+    private int tenant;
+
+    private ArrayHeapQueue<Integer>[] queues;
+
+    @SuppressWarnings("unchecked")
+    @Setup(Level.Iteration)
+    public void setUp() {
+        keys = Distribution.RANDOM.boxedKeys(KEY_COUNT, 1);
+        queues = new ArrayHeapQueue[TENANTS];
+        for (int i = 0; i < TENANTS; i++) {
+            queues[i] = new ArrayHeapQueue<>(Integer::compareTo, policy.policy);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        long retained = 0;
+        for (ArrayHeapQueue<Integer> queue : queues) {
+            retained += queue.retainedBytes();
+        }
+        System.out.println("retained bytes: " + retained);
+    }
+
+    private Integer next() {
+        return keys[cursor = (cursor + 1) & (KEY_COUNT - 1)];
+    }
+
+    //  one burst of offers to the next tenant, then polls down to 1% of it
+    @Benchmark
+    public int burstAndDrain() {
+        ArrayHeapQueue<Integer> queue = queues[tenant = (tenant + 1) % TENANTS];
+        int burst = this.burst;
+        for (int i = 0; i < burst; i++) {
+            queue.offer(next());
+        }
+        int backlog = burst / 100;
+        while (queue.size() > backlog) {
+            queue.poll();
+        }
+        return queue.size();
+    }
+}
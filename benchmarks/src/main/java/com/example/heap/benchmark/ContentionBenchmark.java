@@ -0,0 +1,120 @@
+package com.example.heap.benchmark;
+
+import com.example.heap.core.ArrayHeapQueue;
+import com.example.heap.core.ConcurrentSkipListHeapQueue;
+import com.example.heap.core.HeapQueue;
+import com.example.heap.core.SynchronizedHeapQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Queue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//  sweep the thread count from the command line, e.g.
+//  for t in 1 2 4 8 16 32 64; do java -jar benchmarks.jar ContentionBenchmark -t $t -rf json -rff contention-$t.json; done
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContentionBenchmark {
+
+    @Param({"synchronized", "skipList", "priorityBlockingQueue"})
+    public String implementation;
+
+    @Param({"100000"})
+    public int size;
+
+    private Target target;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (implementation) {
+            case "synchronized":
+                target = heapQueue(new SynchronizedHeapQueue<>(new ArrayHeapQueue<>(Integer::compareTo)));
+                break;
+            case "skipList":
+                target = heapQueue(new ConcurrentSkipListHeapQueue<>(Integer::compareTo));
+                break;
+            case "priorityBlockingQueue":
+                target = queue(new PriorityBlockingQueue<>());
+                break;
+            default:
+                throw new IllegalArgumentException(implementation);
+        }
+        for (int key : Distribution.RANDOM.keys(size, 1)) {
+            target.offer(key);
+        }
+    }
+
+    @Benchmark
+    public Integer offerPoll() {
+        target.offer(ThreadLocalRandom.current().nextInt());
+        return target.poll();
+    }
+
+    @Benchmark
+    public Integer peek() {
+        return target.peek();
+    }
+
+    private static Target heapQueue(HeapQueue<Integer> queue) {
+        return new Target() {
+            @Override
+            public void offer(Integer e) {
+                queue.offer(e);
+            }
+
+            @Override
+            public Integer poll() {
+                return queue.poll();
+            }
+
+            @Override
+            public Integer peek() {
+                return queue.peek();
+            }
+        };
+    }
+
+    private static Target queue(Queue<Integer> queue) {
+        return new Target() {
+            @Override
+            public void offer(Integer e) {
+                queue.offer(e);
+            }
+
+            @Override
+            public Integer poll() {
+                return queue.poll();
+            }
+
+            @Override
+            public Integer peek() {
+                return queue.peek();
+            }
+        };
+    }
+
+    private interface Target {
+
+        void offer(Integer e);
+
+        Integer poll();
+
+        Integer peek();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.heap.benchmark;
+
+import com.example.heap.core.DaryHeapQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+//  SampleTime reports latency percentiles per operation, one curve per arity
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+@State(Scope.Thread)
+public class DaryHeapQueueBenchmark {
+
+    private static final int KEY_COUNT = 1 << 16;
+
+    @Param({"2", "4", "8"})
+    public int arity;
+
+    @Param({"1000000", "10000000", "100000000"})
+    public int size;
+
+    private DaryHeapQueue<Integer> queue;
+
+    private Integer[] keys;
+
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        queue = new DaryHeapQueue<>(Integer::compareTo, arity, size + 1);
+        for (Integer key : Distribution.RANDOM.boxedKeys(size, 1)) {
+            queue.offer(key);
+        }
+        keys = Distribution.RANDOM.boxedKeys(KEY_COUNT, 2);
+    }
+
+    private Integer next() {
+        return keys[cursor = (cursor + 1) & (KEY_COUNT - 1)];
+    }
+
+    //  refilled with a random key, which rarely climbs more than a level
+    @Benchmark
+    public Integer poll() {
+        Integer polled = queue.poll();
+        queue.offer(next());
+        return polled;
+    }
+
+    //  removing the last slot is O(1) and keeps the size constant
+    @Benchmark
+    public Integer offer() {
+        DaryHeapQueue<Integer> queue = this.queue;
+        queue.offer(next());
+        return queue.remove(queue.size() - 1);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.heap.benchmark;
+
+import java.util.Random;
+
+public enum Distribution {
+    RANDOM {
+        @Override
+        public int[] keys(int size, long seed) {
+            Random random = new Random(seed);
+            int[] keys = new int[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = random.nextInt();
+            }
+            return keys;
+        }
+    },
+    SORTED {
+        @Override
+        public int[] keys(int size, long seed) {
+            int[] keys = new int[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = i;
+            }
+            return keys;
+        }
+    },
+    REVERSED {
+        @Override
+        public int[] keys(int size, long seed) {
+            int[] keys = new int[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = size - i;
+            }
+            return keys;
+        }
+    },
+    DUPLICATES {
+        @Override
+        public int[] keys(int size, long seed) {
+            Random random = new Random(seed);
+            int[] keys = new int[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = random.nextInt(16);
+            }
+            return keys;
+        }
+    };
+
+    public abstract int[] keys(int size, long seed);
+
+    public Integer[] boxedKeys(int size, long seed) {
+        int[] keys = keys(size, seed);
+        Integer[] boxed = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            boxed[i] = keys[i];
+        }
+        return boxed;
+    }
+}
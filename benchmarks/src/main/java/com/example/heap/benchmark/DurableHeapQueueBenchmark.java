@@ -0,0 +1,90 @@
+package com.example.heap.benchmark;
+
+import com.example.heap.core.DurableHeapQueue;
+import com.example.heap.core.ElementCodec;
+import com.example.heap.core.SyncPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+//  throughput cost of each durability level, one offer and one poll per operation
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DurableHeapQueueBenchmark {
+
+    private static final int SIZE = 10_000;
+
+    @Param({"PER_OPERATION", "BATCHED_64", "TIMED_10MS", "NONE"})
+    public String policy;
+
+    private Path directory;
+
+    private DurableHeapQueue<Integer> queue;
+
+    private Integer[] keys;
+
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("durable");
+        queue = new DurableHeapQueue<>(directory, Integer::compareTo, ElementCodec.integers(), policy());
+        keys = Distribution.RANDOM.boxedKeys(SIZE, 1);
+        for (Integer key : keys) {
+            queue.offer(key);
+        }
+        queue.sync();
+    }
+
+    private SyncPolicy policy() {
+        switch (policy) {
+            case "PER_OPERATION":
+                return SyncPolicy.perOperation();
+            case "BATCHED_64":
+                return SyncPolicy.batched(64);
+            case "TIMED_10MS":
+                return SyncPolicy.timed(10, TimeUnit.MILLISECONDS);
+            case "NONE":
+                return SyncPolicy.none();
+            default:
+                throw new IllegalArgumentException("unknown policy: " + policy);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        queue.close();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public Integer offerPoll() {
+        queue.offer(keys[cursor = (cursor + 1) % SIZE]);
+        return queue.poll();
+    }
+}
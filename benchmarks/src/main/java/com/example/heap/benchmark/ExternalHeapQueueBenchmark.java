@@ -0,0 +1,80 @@
+package com.example.heap.benchmark;
+
+import com.example.heap.core.ArrayHeapQueue;
+import com.example.heap.core.ElementCodec;
+import com.example.heap.core.ExternalHeapQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+//  offers 10x the memory budget and drains it again; the in-memory queue of the same
+//  size is the CPU-only baseline, the difference is spill and merge I/O plus coding
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ExternalHeapQueueBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int memoryBudget;
+
+    private Integer[] keys;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        keys = Distribution.RANDOM.boxedKeys(memoryBudget * 10, 1);
+        directory = Files.createTempDirectory("external");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public long external() throws IOException {
+        long sum = 0;
+        try (ExternalHeapQueue<Integer> queue = new ExternalHeapQueue<>(
+                Integer::compareTo, ElementCodec.integers(), memoryBudget, directory)) {
+            for (Integer key : keys) {
+                queue.offer(key);
+            }
+            while (!queue.isEmpty()) {
+                sum += queue.poll();
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long inMemory() {
+        long sum = 0;
+        ArrayHeapQueue<Integer> queue = new ArrayHeapQueue<>(Integer::compareTo);
+        for (Integer key : keys) {
+            queue.offer(key);
+        }
+        while (!queue.isEmpty()) {
+            sum += queue.poll();
+        }
+        return sum;
+    }
+}
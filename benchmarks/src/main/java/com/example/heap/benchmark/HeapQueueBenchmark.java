@@ -0,0 +1,154 @@
+package com.example.heap.benchmark;
+
+import com.example.heap.core.ArrayHeapQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class HeapQueueBenchmark {
+
+    private static final long SEED = 42;
+
+    private static final Comparator<Integer> COMPARATOR = Integer::compareTo;
+
+    //  power of two so the cursor can wrap with a mask
+    private static final int RANDOM_COUNT = 1 << 16;
+
+    @State(Scope.Thread)
+    public static class Keys {
+
+        @Param({"100", "10000", "1000000", "100000000"})
+        public int size;
+
+        @Param({"RANDOM", "SORTED", "REVERSED", "DUPLICATES"})
+        public Distribution distribution;
+
+        public Integer[] keys;
+
+        public ArrayHeapQueue<Integer> filled;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            keys = distribution.boxedKeys(size, SEED);
+            filled = new ArrayHeapQueue<>(COMPARATOR, keys);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Copy {
+
+        public ArrayHeapQueue<Integer> queue;
+
+        @Setup(Level.Invocation)
+        public void setUp(Keys keys) {
+            queue = keys.filled.clone();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class SteadyState {
+
+        public ArrayHeapQueue<Integer> queue;
+
+        public Integer[] values;
+
+        public int[] indices;
+
+        public int cursor;
+
+        @Setup(Level.Iteration)
+        public void setUp(Keys keys) {
+            queue = keys.filled.clone();
+            Random random = new Random(SEED);
+            int[] distributed = keys.distribution.keys(RANDOM_COUNT, SEED);
+            values = new Integer[RANDOM_COUNT];
+            indices = new int[RANDOM_COUNT];
+            for (int i = 0; i < RANDOM_COUNT; i++) {
+                values[i] = distributed[i];
+                indices[i] = random.nextInt(keys.size);
+            }
+        }
+
+        public int next() {
+            return cursor = (cursor + 1) & (RANDOM_COUNT - 1);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public ArrayHeapQueue<Integer> insertHeavy(Keys keys) {
+        ArrayHeapQueue<Integer> queue = new ArrayHeapQueue<>(COMPARATOR);
+        for (Integer key : keys.keys) {
+            queue.offer(key);
+        }
+        return queue;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public ArrayHeapQueue<Integer> bulkBuild(Keys keys) {
+        return new ArrayHeapQueue<>(COMPARATOR, keys.keys);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public ArrayHeapQueue<Integer> addAllHalf(Keys keys) {
+        Integer[] all = keys.keys;
+        int half = all.length >>> 1;
+        ArrayHeapQueue<Integer> queue = new ArrayHeapQueue<>(COMPARATOR, Arrays.copyOf(all, half));
+        queue.addAll(Arrays.copyOfRange(all, half, all.length));
+        return queue;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void popHeavy(Copy copy, Blackhole blackhole) {
+        ArrayHeapQueue<Integer> queue = copy.queue;
+        while (!queue.isEmpty()) {
+            blackhole.consume(queue.poll());
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Integer mixed(SteadyState state) {
+        ArrayHeapQueue<Integer> queue = state.queue;
+        queue.offer(state.values[state.next()]);
+        return queue.poll();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Integer arbitraryRemoval(SteadyState state) {
+        ArrayHeapQueue<Integer> queue = state.queue;
+        int i = state.next();
+        Integer removed = queue.remove(state.indices[i]);
+        queue.offer(state.values[i]);
+        return removed;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean removeIf(Copy copy) {
+        return copy.queue.removeIf(e -> (e & 7) == 0);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.heap.benchmark;
+
+import com.example.heap.core.ArrayHeapQueue;
+import com.example.heap.core.IntComparator;
+import com.example.heap.core.KWayMerger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.TimeUnit;
+
+//  merges k sorted sources of 1M elements in total, against the usual loop of one
+//  poll and one offer per element on an ArrayHeapQueue of cursors
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KWayMergerBenchmark {
+
+    private static final int TOTAL = 1 << 20;
+
+    @Param({"2", "10", "100", "1000", "10000"})
+    public int k;
+
+    private Integer[][] sources;
+
+    private int[][] intSources;
+
+    static final class Cursor {
+
+        Integer head;
+
+        final Iterator<Integer> source;
+
+        Cursor(Iterator<Integer> source) {
+            this.head = source.next();
+            this.source = source;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int[] keys = Distribution.RANDOM.keys(TOTAL, 1);
+        sources = new Integer[k][];
+        intSources = new int[k][];
+        int length = TOTAL / k;
+        for (int i = 0; i < k; i++) {
+            int[] run = Arrays.copyOfRange(keys, i * length, (i + 1) * length);
+            Arrays.sort(run);
+            intSources[i] = run;
+            sources[i] = Arrays.stream(run).boxed().toArray(Integer[]::new);
+        }
+    }
+
+    @Benchmark
+    public long pollOffer() {
+        ArrayHeapQueue<Cursor> queue = new ArrayHeapQueue<>((a, b) -> a.head.compareTo(b.head), k);
+        for (Integer[] source : sources) {
+            queue.offer(new Cursor(Arrays.asList(source).iterator()));
+        }
+        long sum = 0;
+        while (!queue.isEmpty()) {
+            Cursor cursor = queue.poll();
+            sum += cursor.head;
+            if (cursor.source.hasNext()) {
+                cursor.head = cursor.source.next();
+                queue.offer(cursor);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long merger() {
+        List<Iterator<Integer>> iterators = new ArrayList<>(k);
+        for (Integer[] source : sources) {
+            iterators.add(Arrays.asList(source).iterator());
+        }
+        KWayMerger<Integer> merger = new KWayMerger<>(Integer::compareTo, iterators);
+        long sum = 0;
+        while (merger.hasNext()) {
+            sum += merger.next();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long mergerOfInt() {
+        List<PrimitiveIterator.OfInt> iterators = new ArrayList<>(k);
+        for (int[] source : intSources) {
+            iterators.add(Arrays.stream(source).iterator());
+        }
+        KWayMerger.OfInt merger = new KWayMerger.OfInt(IntComparator.naturalOrder(), iterators);
+        long sum = 0;
+        while (merger.hasNext()) {
+            sum += merger.nextInt();
+        }
+        return sum;
+    }
+}
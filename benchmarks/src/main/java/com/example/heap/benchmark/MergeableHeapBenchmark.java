@@ -0,0 +1,205 @@
+package com.example.heap.benchmark;
+
+import com.example.heap.core.ArrayHeapQueue;
+import com.example.heap.core.HeapHandle;
+import com.example.heap.core.HeapQueue;
+import com.example.heap.core.PairingHeapQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+//  shard merge: eight per-worker queues combined into one and the first 1% polled;
+//  dijkstra on a random graph, lazy deletion on the array heap against decrease-key
+//  handles on the pairing heap
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class MergeableHeapBenchmark {
+
+    private static final int SHARDS = 8;
+
+    private static final int SHARD_SIZE = 1 << 17;
+
+    private static final int NODES = 1 << 17;
+
+    private static final int DEGREE = 8;
+
+    static final class Entry {
+
+        final int node;
+
+        final long distance;
+
+        Entry(int node, long distance) {
+            this.node = node;
+            this.distance = distance;
+        }
+    }
+
+    private static final Comparator<Entry> BY_DISTANCE = Comparator.comparingLong(e -> e.distance);
+
+    @State(Scope.Thread)
+    public static class Shards {
+
+        ArrayHeapQueue<Integer>[] arrays;
+
+        PairingHeapQueue<Integer>[] pairings;
+
+        @SuppressWarnings("unchecked")
+        @Setup(Level.Invocation)
+        public void setUp() {
+            arrays = new ArrayHeapQueue[SHARDS];
+            pairings = new PairingHeapQueue[SHARDS];
+            for (int i = 0; i < SHARDS; i++) {
+                Integer[] keys = Distribution.RANDOM.boxedKeys(SHARD_SIZE, i);
+                arrays[i] = new ArrayHeapQueue<>(Integer::compareTo, keys);
+                pairings[i] = new PairingHeapQueue<>(Integer::compareTo);
+                for (Integer key : keys) {
+                    pairings[i].offer(key);
+                }
+                //  a worker queue in use has been polled, which pairs up the root children
+                pairings[i].offer(pairings[i].poll());
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Graph {
+
+        int[] offsets;
+
+        int[] targets;
+
+        int[] weights;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            SplittableRandom random = new SplittableRandom(1);
+            offsets = new int[NODES + 1];
+            targets = new int[NODES * DEGREE];
+            weights = new int[NODES * DEGREE];
+            for (int v = 0; v < NODES; v++) {
+                offsets[v + 1] = offsets[v] + DEGREE;
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    targets[i] = random.nextInt(NODES);
+                    weights[i] = 1 + random.nextInt(1000);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public Integer shardMergeArray(Shards shards) {
+        ArrayHeapQueue<Integer> target = shards.arrays[0];
+        for (int i = 1; i < SHARDS; i++) {
+            shards.arrays[i].forEach(target::offer);
+            shards.arrays[i].clear();
+        }
+        return poll(target);
+    }
+
+    @Benchmark
+    public int mergeOnlyArray(Shards shards) {
+        ArrayHeapQueue<Integer> target = shards.arrays[0];
+        for (int i = 1; i < SHARDS; i++) {
+            shards.arrays[i].forEach(target::offer);
+            shards.arrays[i].clear();
+        }
+        return target.size();
+    }
+
+    @Benchmark
+    public int mergeOnlyPairing(Shards shards) {
+        PairingHeapQueue<Integer> target = shards.pairings[0];
+        for (int i = 1; i < SHARDS; i++) {
+            target.meld(shards.pairings[i]);
+        }
+        return target.size();
+    }
+
+    @Benchmark
+    public Integer shardMergePairing(Shards shards) {
+        PairingHeapQueue<Integer> target = shards.pairings[0];
+        for (int i = 1; i < SHARDS; i++) {
+            target.meld(shards.pairings[i]);
+        }
+        return poll(target);
+    }
+
+    private static Integer poll(HeapQueue<Integer> queue) {
+        Integer last = null;
+        for (int i = SHARDS * SHARD_SIZE / 100; i > 0; i--) {
+            last = queue.poll();
+        }
+        return last;
+    }
+
+    @Benchmark
+    public long dijkstraArray(Graph graph) {
+        long[] distances = new long[NODES];
+        Arrays.fill(distances, Long.MAX_VALUE);
+        ArrayHeapQueue<Entry> queue = new ArrayHeapQueue<>(BY_DISTANCE);
+        distances[0] = 0;
+        queue.offer(new Entry(0, 0));
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            int v = entry.node;
+            if (entry.distance > distances[v]) {
+                continue;
+            }
+            for (int i = graph.offsets[v]; i < graph.offsets[v + 1]; i++) {
+                int w = graph.targets[i];
+                long distance = entry.distance + graph.weights[i];
+                if (distance < distances[w]) {
+                    distances[w] = distance;
+                    queue.offer(new Entry(w, distance));
+                }
+            }
+        }
+        return distances[NODES - 1];
+    }
+
+    @Benchmark
+    public long dijkstraPairing(Graph graph) {
+        long[] distances = new long[NODES];
+        Arrays.fill(distances, Long.MAX_VALUE);
+        @SuppressWarnings("unchecked")
+        HeapHandle<Entry>[] handles = new HeapHandle[NODES];
+        PairingHeapQueue<Entry> queue = new PairingHeapQueue<>(BY_DISTANCE);
+        distances[0] = 0;
+        handles[0] = queue.insert(new Entry(0, 0));
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            int v = entry.node;
+            for (int i = graph.offsets[v]; i < graph.offsets[v + 1]; i++) {
+                int w = graph.targets[i];
+                long distance = entry.distance + graph.weights[i];
+                if (distance < distances[w]) {
+                    distances[w] = distance;
+                    HeapHandle<Entry> handle = handles[w];
+                    if (handle == null) {
+                        handles[w] = queue.insert(new Entry(w, distance));
+                    } else {
+                        handle.update(new Entry(w, distance));
+                    }
+                }
+            }
+        }
+        return distances[NODES - 1];
+    }
+}
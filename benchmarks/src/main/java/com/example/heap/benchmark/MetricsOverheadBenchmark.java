@@ -0,0 +1,70 @@
+package com.example.heap.benchmark;
+
+import com.example.heap.core.ArrayHeapQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+//  the same offer/poll loop with metrics off and on and under a flight recording with
+//  the default settings, the flags are read once per JVM
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class MetricsOverheadBenchmark {
+
+    private static final int KEY_COUNT = 1 << 16;
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    private Integer[] keys;
+
+    private int cursor;
+
+    private ArrayHeapQueue<Integer> queue;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        keys = Distribution.RANDOM.boxedKeys(KEY_COUNT, 2);
+        queue = new ArrayHeapQueue<>(Integer::compareTo, Distribution.RANDOM.boxedKeys(size, 1));
+        queue.ensureCapacity(size + 1);
+    }
+
+    private Integer next() {
+        return keys[cursor = (cursor + 1) & (KEY_COUNT - 1)];
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+    public Integer disabled() {
+        queue.offer(next());
+        return queue.poll();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "-Dcom.example.heap.metrics=true"})
+    public Integer enabled() {
+        queue.offer(next());
+        return queue.poll();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "-XX:StartFlightRecording"})
+    public Integer flightRecording() {
+        queue.offer(next());
+        return queue.poll();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.heap.benchmark;
+
+import com.example.heap.core.ArrayHeapQueue;
+import com.example.heap.core.MinMaxHeapQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+//  admission control at a fixed size: every operation admits one item and then either
+//  serves the highest one or, three times out of four, evicts the lowest one
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class MinMaxHeapBenchmark {
+
+    private static final int KEY_COUNT = 1 << 16;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private Integer[] keys;
+
+    private int cursor;
+
+    private ArrayHeapQueue<Integer> min;
+
+    private ArrayHeapQueue<Integer> max;
+
+    private MinMaxHeapQueue<Integer> minMax;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        Integer[] filling = Distribution.RANDOM.boxedKeys(size, 1);
+        keys = Distribution.RANDOM.boxedKeys(KEY_COUNT, 2);
+        Comparator<Integer> comparator = Integer::compareTo;
+        min = new ArrayHeapQueue<>(comparator, filling);
+        max = new ArrayHeapQueue<>(comparator.reversed(), filling);
+        minMax = new MinMaxHeapQueue<>(comparator, filling);
+    }
+
+    private Integer next() {
+        return keys[cursor = (cursor + 1) & (KEY_COUNT - 1)];
+    }
+
+    @Benchmark
+    public Integer twoHeaps() {
+        Integer e = next();
+        min.offer(e);
+        max.offer(e);
+        if ((cursor & 3) == 0) {
+            Integer served = max.poll();
+            min.remove(min.indexOf(served));
+            return served;
+        }
+        Integer evicted = min.poll();
+        max.remove(max.indexOf(evicted));
+        return evicted;
+    }
+
+    @Benchmark
+    public Integer minMaxHeap() {
+        minMax.offer(next());
+        if ((cursor & 3) == 0) {
+            return minMax.pollLast();
+        }
+        return minMax.pollFirst();
+    }
+}
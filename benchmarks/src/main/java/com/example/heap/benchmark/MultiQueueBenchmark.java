@@ -0,0 +1,72 @@
+package com.example.heap.benchmark;
+
+import com.example.heap.core.ArrayHeapQueue;
+import com.example.heap.core.MultiQueue;
+import com.example.heap.core.SynchronizedHeapQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//  runs on all cores by default, override with -t to draw the scaling curve;
+//  MultiQueueRankError reports the ordering quality for the same shard counts
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class MultiQueueBenchmark {
+
+    //  0 selects a single heap behind one lock
+    @Param({"0", "2", "4"})
+    public int shardsPerThread;
+
+    @Param({"1000000"})
+    public int size;
+
+    private MultiQueue<Integer> multiQueue;
+
+    private SynchronizedHeapQueue<Integer> locked;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkParams params) {
+        int[] keys = Distribution.RANDOM.keys(size, 1);
+        if (shardsPerThread == 0) {
+            locked = new SynchronizedHeapQueue<>(new ArrayHeapQueue<>(Integer::compareTo));
+            for (int key : keys) {
+                locked.offer(key);
+            }
+        } else {
+            multiQueue = new MultiQueue<>(Integer::compareTo, Math.max(2, shardsPerThread * params.getThreads()));
+            for (int key : keys) {
+                multiQueue.offer(key);
+            }
+        }
+    }
+
+    @Benchmark
+    public Integer offerPoll() {
+        Integer e = ThreadLocalRandom.current().nextInt();
+        if (multiQueue == null) {
+            locked.offer(e);
+            return locked.poll();
+        }
+        multiQueue.offer(e);
+        return multiQueue.poll();
+    }
+}
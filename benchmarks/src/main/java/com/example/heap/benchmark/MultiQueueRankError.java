@@ -0,0 +1,32 @@
+package com.example.heap.benchmark;
+
+import com.example.heap.core.MultiQueue;
+
+import java.util.Random;
+
+public class MultiQueueRankError {
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int polls = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        int[] shardCounts = {2, 4, 8, 16, 32, 64, 128, 256};
+        System.out.printf("%8s %12s %12s%n", "shards", "mean rank", "max rank");
+        for (int shardCount : shardCounts) {
+            MultiQueue<Integer> queue = new MultiQueue<>(Integer::compareTo, shardCount);
+            for (int key : Distribution.RANDOM.keys(size, 1)) {
+                queue.offer(key);
+            }
+            Random random = new Random(2);
+            long total = 0;
+            long max = 0;
+            for (int i = 0; i < polls; i++) {
+                Integer polled = queue.poll();
+                long rank = queue.rankError(polled);
+                total += rank;
+                max = Math.max(max, rank);
+                queue.offer(random.nextInt());
+            }
+            System.out.printf("%8d %12.2f %12d%n", shardCount, (double) total / polls, max);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.heap.benchmark;
+
+import com.example.heap.core.ArrayHeapQueue;
+import com.example.heap.core.OffHeapLongHeapQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+//  steady state churn (poll + offer) on a large pre-filled heap, run with -prof gc
+//  to compare gc.count and gc.time of the on-heap records with the off-heap ones
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g", "-XX:MaxDirectMemorySize=4g"})
+@State(Scope.Thread)
+public class OffHeapBenchmark {
+
+    static final class Entry {
+
+        final long key;
+
+        final long payload;
+
+        Entry(long key, long payload) {
+            this.key = key;
+            this.payload = payload;
+        }
+    }
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    @Param({"ON_HEAP", "DIRECT", "MAPPED"})
+    public String storage;
+
+    private SplittableRandom random;
+
+    private ArrayHeapQueue<Entry> onHeap;
+
+    private OffHeapLongHeapQueue offHeap;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        random = new SplittableRandom(1);
+        switch (storage) {
+            case "ON_HEAP":
+                onHeap = new ArrayHeapQueue<>(Comparator.comparingLong((Entry e) -> e.key), size);
+                for (int i = 0; i < size; i++) {
+                    onHeap.offer(new Entry(random.nextLong(), i));
+                }
+                break;
+            case "DIRECT":
+                offHeap = OffHeapLongHeapQueue.direct(Long::compare);
+                fill();
+                break;
+            case "MAPPED":
+                file = Files.createTempFile("heap", ".bin");
+                offHeap = OffHeapLongHeapQueue.mapped(Long::compare, file);
+                fill();
+                break;
+            default:
+                throw new IllegalArgumentException("unknown storage: " + storage);
+        }
+    }
+
+    private void fill() {
+        offHeap.ensureCapacity(size);
+        for (int i = 0; i < size; i++) {
+            offHeap.offer(random.nextLong(), i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (offHeap != null) {
+            offHeap.close();
+        }
+        if (file != null) {
+            Files.delete(file);
+        }
+    }
+
+    @Benchmark
+    public long churn() {
+        long key = random.nextLong();
+        if (onHeap != null) {
+            long payload = onHeap.poll().payload;
+            onHeap.offer(new Entry(key, payload));
+            return payload;
+        }
+        long payload = offHeap.pollPayload();
+        offHeap.offer(key, payload);
+        return payload;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.heap.benchmark;
+
+import com.example.heap.core.ArrayHeapQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+//  top-k preview of a large queue: the ordered iterator against cloning and polling
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderedIterationBenchmark {
+
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"10", "1000", "100000"})
+    public int k;
+
+    private ArrayHeapQueue<Integer> queue;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        queue = new ArrayHeapQueue<>(Integer::compareTo, Distribution.RANDOM.boxedKeys(size, 1));
+    }
+
+    @Benchmark
+    public long orderedIterator() {
+        long sum = 0;
+        Iterator<Integer> iterator = queue.orderedIterator();
+        for (int i = 0; i < k; i++) {
+            sum += iterator.next();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long cloneAndPoll() {
+        long sum = 0;
+        ArrayHeapQueue<Integer> copy = queue.clone();
+        for (int i = 0; i < k; i++) {
+            sum += copy.poll();
+        }
+        return sum;
+    }
+}
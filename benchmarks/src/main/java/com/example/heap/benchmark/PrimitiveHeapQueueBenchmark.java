@@ -0,0 +1,70 @@
+package com.example.heap.benchmark;
+
+import com.example.heap.core.ArrayHeapQueue;
+import com.example.heap.core.IntArrayHeapQueue;
+import com.example.heap.core.IntComparator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+//  run with -prof gc to get allocation per operation
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class PrimitiveHeapQueueBenchmark {
+
+    private static final int KEY_COUNT = 1 << 16;
+
+    @Param({"1000", "1000000", "10000000"})
+    public int size;
+
+    private int[] keys;
+
+    private int cursor;
+
+    private ArrayHeapQueue<Integer> boxed;
+
+    private IntArrayHeapQueue primitive;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        int[] filling = Distribution.RANDOM.keys(size, 1);
+        keys = Distribution.RANDOM.keys(KEY_COUNT, 2);
+        boxed = new ArrayHeapQueue<>(Integer::compareTo, size + 1);
+        primitive = new IntArrayHeapQueue(IntComparator.naturalOrder(), size + 1);
+        for (int key : filling) {
+            boxed.offer(key);
+            primitive.offer(key);
+        }
+    }
+
+    private int next() {
+        return keys[cursor = (cursor + 1) & (KEY_COUNT - 1)];
+    }
+
+    @Benchmark
+    public Integer boxedOfferPoll() {
+        boxed.offer(next());
+        return boxed.poll();
+    }
+
+    @Benchmark
+    public int primitiveOfferPoll() {
+        primitive.offer(next());
+        return primitive.poll();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.heap.benchmark;
+
+import com.example.heap.core.LongArrayHeapQueue;
+import com.example.heap.core.LongComparator;
+import com.example.heap.core.LongHeapQueue;
+import com.example.heap.core.LongRadixHeapQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//  hold model of a discrete event simulation: every operation pops the next event
+//  and schedules a new one at its time plus a random delay
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class RadixHeapBenchmark {
+
+    private static final int DELAY_COUNT = 1 << 16;
+
+    public enum Implementation {
+        ARRAY, RADIX
+    }
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    @Param({"ARRAY", "RADIX"})
+    public Implementation implementation;
+
+    private long[] delays;
+
+    private int cursor;
+
+    private LongHeapQueue queue;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        Random random = new Random(1);
+        delays = new long[DELAY_COUNT];
+        for (int i = 0; i < DELAY_COUNT; i++) {
+            delays[i] = (long) (-Math.log(1 - random.nextDouble()) * 1_000_000);
+        }
+        queue = implementation == Implementation.ARRAY
+                ? new LongArrayHeapQueue(LongComparator.naturalOrder(), size + 1)
+                : new LongRadixHeapQueue();
+        for (int i = 0; i < size; i++) {
+            queue.offer(next());
+        }
+    }
+
+    private long next() {
+        return delays[cursor = (cursor + 1) & (DELAY_COUNT - 1)];
+    }
+
+    @Benchmark
+    public long hold() {
+        long time = queue.poll();
+        queue.offer(time + next());
+        return time;
+    }
+}
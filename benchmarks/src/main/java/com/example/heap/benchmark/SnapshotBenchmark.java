@@ -0,0 +1,83 @@
+package com.example.heap.benchmark;
+
+import com.example.heap.core.ArrayHeapQueue;
+import com.example.heap.core.ElementCodec;
+import com.example.heap.core.HeapSnapshot;
+import com.example.heap.core.IntArrayHeapQueue;
+import com.example.heap.core.IntComparator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+//  restart-to-ready time: restoring a snapshot against rebuilding the queue from
+//  its unordered source keys
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class SnapshotBenchmark {
+
+    @Param({"1000000", "20000000"})
+    public int size;
+
+    private int[] keys;
+
+    private Integer[] boxedKeys;
+
+    private Path intFile;
+
+    private Path objectFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        keys = Distribution.RANDOM.keys(size, 1);
+        boxedKeys = Distribution.RANDOM.boxedKeys(size, 1);
+        intFile = Files.createTempFile("heap", ".int");
+        objectFile = Files.createTempFile("heap", ".obj");
+        HeapSnapshot.write(new IntArrayHeapQueue(IntComparator.naturalOrder(), keys), intFile);
+        HeapSnapshot.write(new ArrayHeapQueue<>(Integer::compareTo, boxedKeys), ElementCodec.integers(), objectFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.delete(intFile);
+        Files.delete(objectFile);
+    }
+
+    @Benchmark
+    public IntArrayHeapQueue restoreInt() throws IOException {
+        return HeapSnapshot.readIntHeapQueue(intFile, IntComparator.naturalOrder());
+    }
+
+    @Benchmark
+    public IntArrayHeapQueue rebuildInt() {
+        return new IntArrayHeapQueue(IntComparator.naturalOrder(), keys);
+    }
+
+    @Benchmark
+    public ArrayHeapQueue<Integer> restoreObject() throws IOException {
+        return HeapSnapshot.readArrayHeapQueue(objectFile, Integer::compareTo, ElementCodec.integers());
+    }
+
+    @Benchmark
+    public ArrayHeapQueue<Integer> rebuildObject() {
+        return new ArrayHeapQueue<>(Integer::compareTo, boxedKeys);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.heap.benchmark;
+
+import com.example.heap.core.ArrayHeapQueue;
+import com.example.heap.core.StableArrayHeapQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+//  FIFO among equal keys, run with -prof gc to see the wrapper allocation
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class StableHeapQueueBenchmark {
+
+    private static final int KEY_COUNT = 1 << 16;
+
+    private static final class Sequenced {
+
+        final Integer element;
+
+        final long sequence;
+
+        Sequenced(Integer element, long sequence) {
+            this.element = element;
+            this.sequence = sequence;
+        }
+    }
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    private Integer[] keys;
+
+    private int cursor;
+
+    private long sequence;
+
+    private ArrayHeapQueue<Sequenced> wrapped;
+
+    private StableArrayHeapQueue<Integer> stable;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        Integer[] filling = Distribution.DUPLICATES.boxedKeys(size, 1);
+        keys = Distribution.DUPLICATES.boxedKeys(KEY_COUNT, 2);
+        Comparator<Sequenced> comparator = Comparator.<Sequenced, Integer>comparing(s -> s.element)
+                .thenComparingLong(s -> s.sequence);
+        wrapped = new ArrayHeapQueue<>(comparator, size + 2);
+        stable = new StableArrayHeapQueue<>(Integer::compareTo, size + 2);
+        for (Integer key : filling) {
+            wrapped.offer(new Sequenced(key, sequence++));
+            stable.offer(key);
+        }
+    }
+
+    private Integer next() {
+        return keys[cursor = (cursor + 1) & (KEY_COUNT - 1)];
+    }
+
+    @Benchmark
+    public Integer wrappedOfferPoll() {
+        wrapped.offer(new Sequenced(next(), sequence++));
+        return wrapped.poll().element;
+    }
+
+    @Benchmark
+    public Integer stableOfferPoll() {
+        stable.offer(next());
+        return stable.poll();
+    }
+}
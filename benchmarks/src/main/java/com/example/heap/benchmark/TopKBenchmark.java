@@ -0,0 +1,68 @@
+package com.example.heap.benchmark;
+
+import com.example.heap.core.ArrayHeapQueue;
+import com.example.heap.core.BoundedHeapQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+//  one stream element per operation, run with -prof gc to check the steady state
+//  allocation of the bounded queue
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TopKBenchmark {
+
+    private static final int STREAM_LENGTH = 1 << 20;
+
+    @Param({"100", "10000"})
+    public int k;
+
+    @Param({"RANDOM", "SORTED"})
+    public Distribution distribution;
+
+    private Integer[] stream;
+
+    private int cursor;
+
+    private ArrayHeapQueue<Integer> unbounded;
+
+    private BoundedHeapQueue<Integer> bounded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        stream = distribution.boxedKeys(STREAM_LENGTH, 1);
+        unbounded = new ArrayHeapQueue<>(Integer::compareTo);
+        bounded = new BoundedHeapQueue<>(Integer::compareTo, k);
+    }
+
+    private Integer next() {
+        return stream[cursor = (cursor + 1) & (STREAM_LENGTH - 1)];
+    }
+
+    @Benchmark
+    public Integer offerThenPoll() {
+        ArrayHeapQueue<Integer> queue = this.unbounded;
+        queue.offer(next());
+        return queue.size() > k ? queue.poll() : null;
+    }
+
+    @Benchmark
+    public Integer offerOrReplaceTop() {
+        return bounded.offerOrReplaceTop(next());
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.heap.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DistributionTest {
+
+    @Test
+    void sameSeedGivesSameKeys() {
+        for (Distribution distribution : Distribution.values()) {
+            assertArrayEquals(distribution.keys(1000, 42), distribution.keys(1000, 42), distribution.name());
+            assertEquals(1000, distribution.boxedKeys(1000, 42).length);
+        }
+    }
+
+    @Test
+    void shapes() {
+        int[] sorted = Distribution.SORTED.keys(100, 0);
+        int[] reversed = Distribution.REVERSED.keys(100, 0);
+        for (int i = 1; i < 100; i++) {
+            assertTrue(sorted[i - 1] < sorted[i]);
+            assertTrue(reversed[i - 1] > reversed[i]);
+        }
+        assertEquals(16, Arrays.stream(Distribution.DUPLICATES.keys(10_000, 0)).distinct().count());
+    }
+}
@@ -1,7 +1,7 @@
 package com.example.heap.controller;
 
-import com.example.heap.core.ArrayHeapQueue;
 import com.example.heap.core.HeapQueue;
+import com.example.heap.core.IndexedHeapQueue;
 import com.example.heap.exception.LoadingException;
 import com.example.heap.exception.ValidationException;
 import javafx.application.Platform;
@@ -105,7 +105,7 @@ public class MainController implements Controller {
 
     @FXML
     private void initialize() {
-        heapQueue = new ArrayHeapQueue<>(Integer::compareTo);
+        heapQueue = new IndexedHeapQueue<>(Integer::compareTo);
         pointMap = new HashMap<>();
         heapQueue.offer(5);
         heapQueue.offer(3);
@@ -170,7 +170,7 @@ public class MainController implements Controller {
 
     private void add() throws ValidationException {
         Integer value = getInt(addTextField);
-        if (!pointMap.containsKey(value) && heapQueue.offer(value)) {
+        if (heapQueue.offer(value)) {
             pointMap.put(value, centerPoint());
             selectedIndex = heapQueue.indexOf(value);
             format();
@@ -0,0 +1,371 @@
+package com.example.heap.core;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+//  backing array, capacity policy and everything that does not depend on the heap
+//  order; subclasses keep data[0, size) in their own order and rebuild it in heapify
+abstract class AbstractArrayHeapQueue<E> implements HeapQueue<E>, Cloneable {
+
+    static final Object[] EMPTY_ARRAY = {};
+
+    //  HotSpot layout with compressed oops, which it uses for heaps below 32 GB
+    static final int ARRAY_HEADER_BYTES = 16;
+
+    static final int REFERENCE_BYTES = Runtime.getRuntime().maxMemory() < (32L << 30) ? 4 : 8;
+
+    Object[] data;
+
+    int size;
+
+    final Comparator<? super E> comparator;
+
+    final CapacityPolicy policy;
+
+    //  cached policy.shrinkBelow(data.length)
+    int shrinkBelow;
+
+    HeapMetrics metrics = HeapMetrics.ENABLED ? new HeapMetrics() : null;
+
+    //  set by HeapQueueMonitor, tags the flight recorder events
+    String name;
+
+    int growthCount;
+
+    //  structural modifications, the ordered iterator fails once it changes
+    int modCount;
+
+    AbstractArrayHeapQueue(Comparator<? super E> comparator, int initialCapacity, CapacityPolicy policy) {
+        this(comparator, initialCapacity == 0 ? EMPTY_ARRAY : new Object[initialCapacity], 0, policy);
+    }
+
+    //  adopts a full array, the caller heapifies it
+    AbstractArrayHeapQueue(Comparator<? super E> comparator, Object[] data, CapacityPolicy policy) {
+        this(comparator, data, data.length, policy);
+    }
+
+    //  adopts data, the caller puts data[0, size) in heap order
+    AbstractArrayHeapQueue(Comparator<? super E> comparator, Object[] data, int size, CapacityPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("policy is null");
+        }
+        if (data.length > policy.maxCapacity()) {
+            throw new IllegalArgumentException("capacity should not exceed maxCapacity " + policy.maxCapacity()
+                    + ": " + data.length);
+        }
+        this.data = data.length == 0 ? EMPTY_ARRAY : data;
+        this.size = size;
+        this.comparator = comparator;
+        this.policy = policy;
+        this.shrinkBelow = policy.shrinkBelow(data.length);
+    }
+
+    static Object[] toArray(Collection<?> c) {
+        Object[] array = c.toArray();
+        if (array.getClass() != Object[].class) {
+            array = Arrays.copyOf(array, array.length, Object[].class);
+        }
+        return array;
+    }
+
+    abstract void heapify();
+
+    public CapacityPolicy capacityPolicy() {
+        return policy;
+    }
+
+    //  never grows past the policy's max capacity
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity >= data.length && data.length < policy.maxCapacity()) {
+            resize(policy.grow(minCapacity));
+        }
+    }
+
+    //  called when required >= data.length, false if the element has to be rejected
+    boolean grow(int required) {
+        int maxCapacity = policy.maxCapacity();
+        if (required > maxCapacity) {
+            if (policy.overflow() == CapacityPolicy.Overflow.REJECT) {
+                return false;
+            }
+            throw new IllegalStateException("Queue full, max capacity: " + maxCapacity);
+        }
+        if (data.length < maxCapacity) {
+            resize(policy.grow(required));
+        }
+        return true;
+    }
+
+    void shrink() {
+        int length = policy.shrink(size);
+        if (length < data.length) {
+            resize(length);
+        }
+    }
+
+    public void trimToSize() {
+        if (size != data.length) {
+            resize(size);
+        }
+    }
+
+    //  shallow size of the backing array, the elements themselves are not counted
+    public long retainedBytes() {
+        return (ARRAY_HEADER_BYTES + (long) data.length * REFERENCE_BYTES + 7) & ~7L;
+    }
+
+    void resize(int length) {
+        HeapQueueEvents.Resize event = new HeapQueueEvents.Resize();
+        event.begin();
+        int oldCapacity = data.length;
+        Object[] array = length == 0 ? EMPTY_ARRAY : new Object[length];
+        System.arraycopy(data, 0, array, 0, size);
+        data = array;
+        shrinkBelow = policy.shrinkBelow(length);
+        if (length > oldCapacity) {
+            growthCount++;
+        }
+        if (HeapMetrics.ENABLED) {
+            metrics.resize(size);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.queue = name;
+            event.size = size;
+            event.oldCapacity = oldCapacity;
+            event.newCapacity = length;
+            event.commit();
+        }
+    }
+
+    Object[] array() {
+        return data;
+    }
+
+    //  null unless metrics are enabled
+    public HeapMetrics metrics() {
+        return metrics;
+    }
+
+    void name(String name) {
+        this.name = name;
+    }
+
+    int capacity() {
+        return data.length;
+    }
+
+    int growthCount() {
+        return growthCount;
+    }
+
+    @Override
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean contains(E e) {
+        return indexOf(e) >= 0;
+    }
+
+    @Override
+    public E peek() {
+        if (isEmpty()) {
+            return null;
+        }
+        return get(0);
+    }
+
+    @Override
+    public int indexOf(E e) {
+        Object[] data = this.data;
+        int size = this.size;
+        if (e == null) {
+            for (int i = 0; i < size; i++) {
+                if (null == data[i]) {
+                    return i;
+                }
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                if (e.equals(data[i])) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E get(int index) {
+        return (E) data[index];
+    }
+
+    @Override
+    public void clear() {
+        HeapQueueEvents.Clear event = new HeapQueueEvents.Clear();
+        event.begin();
+        Object[] data = this.data;
+        int size = this.size;
+        this.size = 0;
+        modCount++;
+        //  a queue that shrinks drops the array instead of nulling it
+        if (shrinkBelow > 0) {
+            shrink();
+        }
+        if (this.data == data) {
+            for (int i = 0; i < size; i++) {
+                data[i] = null;
+            }
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.queue = name;
+            event.size = size;
+            event.commit();
+        }
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        long start = HeapMetrics.ENABLED ? System.nanoTime() : 0L;
+        HeapQueueEvents.RemoveIf event = new HeapQueueEvents.RemoveIf();
+        event.begin();
+        int size = this.size;
+        int dest = compact(filter);
+        if (size != dest) {
+            modCount++;
+            heapify();
+            if (dest < shrinkBelow) {
+                shrink();
+            }
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.queue = name;
+            event.sizeBefore = size;
+            event.removed = size - dest;
+            event.commit();
+        }
+        if (HeapMetrics.ENABLED) {
+            metrics.record(HeapMetrics.Operation.REMOVE_IF, start);
+        }
+        return size != dest;
+    }
+
+    //  moves the elements the filter keeps to the front in array order, clears the rest
+    //  and returns the new size; the caller restores the heap order
+    int compact(Predicate<? super E> filter) {
+        Object[] data = this.data;
+        int size = this.size;
+        int dest = 0;
+        for (int i = 0; i < size; i++) {
+            @SuppressWarnings("unchecked")
+            E element = (E) data[i];
+            if (!filter.test(element)) {
+                data[dest++] = element;
+            }
+        }
+        this.size = dest;
+        for (int i = dest; i < size; i++) {
+            data[i] = null;
+        }
+        return dest;
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        Object[] data = this.data;
+        int size = this.size;
+        for (int i = 0; i < size; i++) {
+            @SuppressWarnings("unchecked")
+            E element = (E) data[i];
+            action.accept(element);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public AbstractArrayHeapQueue<E> clone() {
+        AbstractArrayHeapQueue<E> clone;
+        try {
+            clone = (AbstractArrayHeapQueue<E>) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+        Object[] data = this.data;
+        Object[] array = data.length == 0 ? EMPTY_ARRAY : new Object[data.length];
+        System.arraycopy(data, 0, array, 0, size);
+        clone.data = array;
+        clone.metrics = HeapMetrics.ENABLED ? new HeapMetrics() : null;
+        clone.name = null;
+        return clone;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AbstractArrayHeapQueue<?> that = (AbstractArrayHeapQueue<?>) o;
+        int size = this.size;
+        if (size != that.size) {
+            return false;
+        }
+        Object[] d1 = this.data;
+        Object[] d2 = that.data;
+        for (int i = 0; i < size; i++) {
+            Object e1 = d1[i];
+            Object e2 = d2[i];
+            if (!Objects.equals(e1, e2)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        Object[] data = this.data;
+        int size = this.size;
+        int hash = size == 0 ? 31 : size;
+        for (int i = 0; i < size; i++) {
+            Object e = data[i];
+            hash = 31 * hash + (e != null ? e.hashCode() : 0);
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        int size = this.size;
+        if (size == 0) {
+            return "[]";
+        }
+        Object[] data = this.data;
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        for (int i = 0; i < size; i++) {
+            Object e = data[i];
+            sb.append(e).append(',').append(' ');
+        }
+        sb.setLength(sb.length() - 2);
+        sb.append(']');
+        return sb.toString();
+    }
+}
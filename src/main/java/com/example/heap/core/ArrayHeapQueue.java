@@ -1,60 +1,65 @@
 package com.example.heap.core;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
-import java.util.Objects;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public class ArrayHeapQueue<E> implements HeapQueue<E>, Cloneable {
+public class ArrayHeapQueue<E> extends AbstractArrayHeapQueue<E> {
 
-    private static final Object[] EMPTY_ARRAY = {};
+    //  below this size parallelRemoveIf runs removeIf
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
 
-    private Object[] data;
-
-    private int size;
-
-    private final Comparator<? super E> comparator;
+    private static final int PARALLEL_GRAIN = 1 << 13;
 
     public ArrayHeapQueue(Comparator<? super E> comparator) {
-        this.data = EMPTY_ARRAY;
-        this.comparator = comparator;
+        this(comparator, CapacityPolicy.DEFAULT);
+    }
+
+    public ArrayHeapQueue(Comparator<? super E> comparator, CapacityPolicy policy) {
+        super(comparator, 0, policy);
     }
 
     public ArrayHeapQueue(Comparator<? super E> comparator, int initialCapacity) {
-        if (initialCapacity == 0) {
-            this.data = EMPTY_ARRAY;
-        } else {
-            this.data = new Object[initialCapacity];
-        }
-        this.comparator = comparator;
+        super(comparator, initialCapacity, CapacityPolicy.DEFAULT);
     }
 
-    public void ensureCapacity(int minCapacity) {
-        if (minCapacity >= data.length) {
-            int newCapacity = minCapacity < 64
-                    ? (minCapacity << 1)
-                    : (minCapacity + (minCapacity >>> 1));
-            resize(newCapacity);
-        }
+    public ArrayHeapQueue(Comparator<? super E> comparator, int initialCapacity, CapacityPolicy policy) {
+        super(comparator, initialCapacity, policy);
     }
 
-    public void trimToSize() {
-        int size = this.size;
-        if (size == 0) {
-            data = EMPTY_ARRAY;
-        } else if (size != data.length) {
-            resize(size);
-        }
+    public ArrayHeapQueue(Comparator<? super E> comparator, Collection<? extends E> c) {
+        this(comparator, c, CapacityPolicy.DEFAULT);
+    }
+
+    public ArrayHeapQueue(Comparator<? super E> comparator, Collection<? extends E> c, CapacityPolicy policy) {
+        super(comparator, toArray(c), policy);
+        heapify();
+    }
+
+    public ArrayHeapQueue(Comparator<? super E> comparator, E[] array) {
+        super(comparator, Arrays.copyOf(array, array.length, Object[].class), CapacityPolicy.DEFAULT);
+        heapify();
     }
 
-    private void resize(int length) {
-        Object[] array = new Object[length];
-        System.arraycopy(data, 0, array, 0, size);
-        data = array;
+    //  adopts an array that is already in heap order, used to restore snapshots
+    ArrayHeapQueue(Comparator<? super E> comparator, Object[] data, int size) {
+        super(comparator, data, size, CapacityPolicy.DEFAULT);
     }
 
-    private void siftUp(int index, E e) {
+    void siftUp(int index, E e) {
         Object[] data = this.data;
+        int levels = 0;
         while (index > 0) {
             int parentIndex = HeapQueue.parent(index);
             @SuppressWarnings("unchecked")
@@ -65,14 +70,26 @@ public class ArrayHeapQueue<E> implements HeapQueue<E>, Cloneable {
             }
             data[index] = parent;
             index = parentIndex;
+            levels++;
         }
         data[index] = e;
+        if (HeapMetrics.ENABLED) {
+            metrics.sift(levels, index > 0 ? levels + 1 : levels);
+        }
+    }
+
+    //  replaces the head in place, e is either new or the head with a changed key
+    void replaceTop(E e) {
+        modCount++;
+        siftDown(0, e);
     }
 
-    private void siftDown(int index, E e) {
+    void siftDown(int index, E e) {
         Object[] data = this.data;
         int size = this.size;
         int mid = size >>> 1;
+        int levels = 0;
+        int comparisons = 0;
         while (index < mid) {
             int leftIndex = HeapQueue.left(index);
             @SuppressWarnings("unchecked")
@@ -84,21 +101,33 @@ public class ArrayHeapQueue<E> implements HeapQueue<E>, Cloneable {
                 @SuppressWarnings("unchecked")
                 E right = (E) data[rightIndex];
                 int cmp = comparator.compare(left, right);
+                comparisons++;
                 if (cmp > 0) {
                     minIndex = rightIndex;
                     min = right;
                 }
             }
+            comparisons++;
             if (comparator.compare(e, min) <= 0) {
                 break;
             }
             data[index] = min;
             index = minIndex;
+            levels++;
         }
         data[index] = e;
+        if (HeapMetrics.ENABLED) {
+            metrics.sift(levels, comparisons);
+        }
     }
 
-    private void heapify() {
+    @Override
+    void heapify() {
+        if (HeapMetrics.ENABLED) {
+            metrics.heapify();
+        }
+        HeapQueueEvents.Heapify event = new HeapQueueEvents.Heapify();
+        event.begin();
         Object[] data = this.data;
         int i = (size >>> 1) - 1;
         while (i >= 0) {
@@ -107,45 +136,121 @@ public class ArrayHeapQueue<E> implements HeapQueue<E>, Cloneable {
             siftDown(i, element);
             i--;
         }
-
+        event.end();
+        if (event.shouldCommit()) {
+            event.queue = name;
+            event.size = size;
+            event.commit();
+        }
     }
 
-    @Override
-    public Comparator<? super E> comparator() {
-        return comparator;
+    private void rebuildTail(int start) {
+        int size = this.size;
+        int tailLength = size - start;
+        //  sifting the tail in costs about tailLength * log2(start) comparisons,
+        //  rebuilding the whole heap about 2 * size, both counted in long
+        boolean rebuild;
+        if (start < tailLength) {
+            rebuild = true;
+        } else if (size <= 2048) {
+            rebuild = 2L * size < (long) tailLength * (31 - Integer.numberOfLeadingZeros(start));
+        } else {
+            rebuild = 2L * size < tailLength * 11L;
+        }
+        if (rebuild) {
+            heapify();
+        } else {
+            Object[] data = this.data;
+            for (int i = start; i < size; i++) {
+                @SuppressWarnings("unchecked")
+                E element = (E) data[i];
+                siftUp(i, element);
+            }
+        }
     }
 
     @Override
-    public int size() {
-        return size;
+    public boolean offer(E e) {
+        long start = HeapMetrics.ENABLED ? System.nanoTime() : 0L;
+        int lastIndex = this.size;
+        int newSize = lastIndex + 1;
+        if (newSize >= data.length && !grow(newSize)) {
+            return false;
+        }
+        HeapQueueEvents.Sift event = HeapQueueEvents.beginSift();
+        siftUp(lastIndex, e);
+        this.size = newSize;
+        modCount++;
+        if (event != null) {
+            HeapQueueEvents.endSift(event, name, newSize);
+        }
+        if (HeapMetrics.ENABLED) {
+            metrics.record(HeapMetrics.Operation.OFFER, start);
+        }
+        return true;
     }
 
     @Override
-    public boolean isEmpty() {
-        return size == 0;
+    public boolean addAll(Collection<? extends E> c) {
+        return append(c.toArray());
     }
 
     @Override
-    public boolean contains(E e) {
-        return indexOf(e) >= 0;
+    public boolean addAll(E[] array) {
+        return append(array);
     }
 
     @Override
-    public boolean offer(E e) {
-        int lastIndex = this.size;
-        int newSize = lastIndex + 1;
-        ensureCapacity(newSize);
-        siftUp(lastIndex, e);
-        this.size = newSize;
-        return true;
+    public boolean addAll(Iterator<? extends E> iterator) {
+        int start = this.size;
+        try {
+            while (iterator.hasNext()) {
+                int size = this.size;
+                if (size + 1 >= data.length && !grow(size + 1)) {
+                    break;
+                }
+                E e = iterator.next();
+                data[size] = e;
+                this.size = size + 1;
+            }
+        } finally {
+            if (this.size != start) {
+                modCount++;
+                rebuildTail(start);
+            }
+        }
+        return this.size != start;
     }
 
-    @Override
-    public E peek() {
-        if (isEmpty()) {
-            return null;
+    //  like addAll(Iterator), a batch that does not fit under REJECT adds its first
+    //  elements up to the max capacity
+    private boolean append(Object[] array) {
+        int length = array.length;
+        int start = this.size;
+        int maxCapacity = policy.maxCapacity();
+        if (length > maxCapacity - start) {
+            if (policy.overflow() == CapacityPolicy.Overflow.THROW) {
+                throw new IllegalStateException("Queue full, max capacity: " + maxCapacity);
+            }
+            length = maxCapacity - start;
+        }
+        if (length == 0) {
+            return false;
         }
-        return get(0);
+        int newSize = start + length;
+        //  an empty queue gets an array of exactly the batch size
+        if (start == 0) {
+            if (newSize > data.length) {
+                resize(newSize);
+            }
+        } else if (newSize >= data.length) {
+            grow(newSize);
+        }
+        System.arraycopy(array, 0, data, start, length);
+        this.size = newSize;
+        modCount++;
+        rebuildTail(start);
+        return true;
     }
 
     @Override
@@ -153,46 +258,156 @@ public class ArrayHeapQueue<E> implements HeapQueue<E>, Cloneable {
         if (isEmpty()) {
             return null;
         }
+        long start = HeapMetrics.ENABLED ? System.nanoTime() : 0L;
         E first = get(0);
         int lastIndex = --size;
+        modCount++;
         E last = get(lastIndex);
         data[lastIndex] = null;
         if (lastIndex > 0) {
+            HeapQueueEvents.Sift event = HeapQueueEvents.beginSift();
             siftDown(0, last);
+            if (event != null) {
+                HeapQueueEvents.endSift(event, name, lastIndex);
+            }
+        }
+        if (lastIndex < shrinkBelow) {
+            shrink();
+        }
+        if (HeapMetrics.ENABLED) {
+            metrics.record(HeapMetrics.Operation.POLL, start);
         }
         return first;
     }
 
     @Override
-    public int indexOf(E e) {
+    public int pollBatch(int k, Consumer<? super E> action) {
+        int size = this.size;
+        if (k > size) {
+            k = size;
+        }
+        if (k <= 0) {
+            return 0;
+        }
+        if (k == size) {
+            pollAll(action);
+        } else if (k > selectThreshold(size)) {
+            pollSmallest(k, action);
+        } else {
+            for (int i = 0; i < k; i++) {
+                action.accept(poll());
+            }
+        }
+        return k;
+    }
+
+    //  k polls cost k sifts from the root through the whole array, selecting the k
+    //  smallest, sorting them and rebuilding the rest costs about k * log2(k) + 4 * size
+    //  but touches the array sequentially; measured crossovers (BatchPollBenchmark) are
+    //  around 3/4 of a cache-resident queue, 1/4 at 1e5 elements and 1/14 at 1e6
+    private static int selectThreshold(int size) {
+        if (size <= (1 << 14)) {
+            return size - (size >>> 2);
+        }
+        if (size <= (1 << 18)) {
+            return size >>> 2;
+        }
+        return size >>> 4;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void pollAll(Consumer<? super E> action) {
+        Object[] data = this.data;
+        int size = this.size;
+        Object[] batch = new Object[size];
+        System.arraycopy(data, 0, batch, 0, size);
+        clear();
+        Arrays.sort(batch, (Comparator<Object>) comparator);
+        for (Object e : batch) {
+            action.accept((E) e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void pollSmallest(int k, Consumer<? super E> action) {
         Object[] data = this.data;
         int size = this.size;
-        if (e == null) {
-            for (int i = 0; i < size; i++) {
-                if (null == data[i]) {
-                    return i;
+        select(k);
+        Object[] batch = Arrays.copyOf(data, k);
+        int newSize = size - k;
+        System.arraycopy(data, k, data, 0, newSize);
+        for (int i = newSize; i < size; i++) {
+            data[i] = null;
+        }
+        this.size = newSize;
+        modCount++;
+        heapify();
+        if (newSize < shrinkBelow) {
+            shrink();
+        }
+        Arrays.sort(batch, (Comparator<Object>) comparator);
+        for (Object e : batch) {
+            action.accept((E) e);
+        }
+    }
+
+    //  three-way quickselect, afterwards the k smallest elements are in data[0, k)
+    private void select(int k) {
+        Object[] data = this.data;
+        int from = 0;
+        int to = size;
+        while (to - from > 1) {
+            E pivot = medianOfThree(data, from, (from + to) >>> 1, to - 1);
+            int lt = from;
+            int gt = to;
+            int i = from;
+            while (i < gt) {
+                @SuppressWarnings("unchecked")
+                E element = (E) data[i];
+                int cmp = comparator.compare(element, pivot);
+                if (cmp < 0) {
+                    data[i++] = data[lt];
+                    data[lt++] = element;
+                } else if (cmp > 0) {
+                    data[i] = data[--gt];
+                    data[gt] = element;
+                } else {
+                    i++;
                 }
             }
-        } else {
-            for (int i = 0; i < size; i++) {
-                if (e.equals(data[i])) {
-                    return i;
-                }
+            if (k < lt) {
+                to = lt;
+            } else if (k > gt) {
+                from = gt;
+            } else {
+                return;
             }
         }
-        return -1;
     }
 
     @SuppressWarnings("unchecked")
-    @Override
-    public E get(int index) {
-        return (E) data[index];
+    private E medianOfThree(Object[] data, int i, int j, int k) {
+        E a = (E) data[i];
+        E b = (E) data[j];
+        E c = (E) data[k];
+        if (comparator.compare(a, b) < 0) {
+            if (comparator.compare(b, c) < 0) {
+                return b;
+            }
+            return comparator.compare(a, c) < 0 ? c : a;
+        }
+        if (comparator.compare(a, c) < 0) {
+            return a;
+        }
+        return comparator.compare(b, c) < 0 ? c : b;
     }
 
     @Override
     public E remove(int index) {
+        long start = HeapMetrics.ENABLED ? System.nanoTime() : 0L;
         Object[] data = this.data;
         int lastIndex = --size;
+        modCount++;
         @SuppressWarnings("unchecked")
         E removed = (E) data[index];
         if (lastIndex == index) {
@@ -201,123 +416,383 @@ public class ArrayHeapQueue<E> implements HeapQueue<E>, Cloneable {
             @SuppressWarnings("unchecked")
             E last = (E) data[lastIndex];
             data[lastIndex] = null;
+            HeapQueueEvents.Sift event = HeapQueueEvents.beginSift();
             siftDown(index, last);
             if (data[index] == last) {
                 siftUp(index, last);
             }
+            if (event != null) {
+                HeapQueueEvents.endSift(event, name, lastIndex);
+            }
+        }
+        if (lastIndex < shrinkBelow) {
+            shrink();
+        }
+        if (HeapMetrics.ENABLED) {
+            metrics.record(HeapMetrics.Operation.REMOVE, start);
         }
         return removed;
     }
 
-    @Override
-    public void clear() {
-        Object[] data = this.data;
+    public boolean parallelRemoveIf(Predicate<? super E> filter) {
+        return parallelRemoveIf(filter, ForkJoinPool.commonPool());
+    }
+
+    //  every chunk is filtered and compacted in place in parallel, the kept runs are then
+    //  moved together and the heap is rebuilt level by level, the subtrees of one level
+    //  being independent; the layout is the same as after removeIf
+    public boolean parallelRemoveIf(Predicate<? super E> filter, ForkJoinPool pool) {
         int size = this.size;
-        this.size = 0;
-        for (int i = 0; i < size; i++) {
-            data[i] = null;
+        if (size < PARALLEL_THRESHOLD) {
+            return removeIf(filter);
+        }
+        long start = HeapMetrics.ENABLED ? System.nanoTime() : 0L;
+        HeapQueueEvents.RemoveIf event = new HeapQueueEvents.RemoveIf();
+        event.begin();
+        Object[] data = this.data;
+        int chunkSize = Math.max(size / (pool.getParallelism() << 2), PARALLEL_GRAIN);
+        int chunks = (size + chunkSize - 1) / chunkSize;
+        int[] kept = new int[chunks];
+        pool.invoke(new FilterTask(filter, chunkSize, kept, 0, chunks));
+        int dest = 0;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int offset = chunk * chunkSize;
+            if (dest != offset) {
+                System.arraycopy(data, offset, data, dest, kept[chunk]);
+            }
+            dest += kept[chunk];
+        }
+        if (dest != size) {
+            Arrays.fill(data, dest, size, null);
+            this.size = dest;
+            modCount++;
+            parallelHeapify(pool);
+            if (dest < shrinkBelow) {
+                shrink();
+            }
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.queue = name;
+            event.sizeBefore = size;
+            event.removed = size - dest;
+            event.commit();
+        }
+        if (HeapMetrics.ENABLED) {
+            metrics.record(HeapMetrics.Operation.REMOVE_IF, start);
         }
+        return dest != size;
     }
 
-    @Override
-    public boolean removeIf(Predicate<? super E> filter) {
+    private void parallelHeapify(ForkJoinPool pool) {
+        if (HeapMetrics.ENABLED) {
+            metrics.heapify();
+        }
+        int last = (size >>> 1) - 1;
+        if (last < 0) {
+            return;
+        }
+        HeapQueueEvents.Heapify event = new HeapQueueEvents.Heapify();
+        event.begin();
+        //  node i is on level log2(i + 1)
+        for (int level = 31 - Integer.numberOfLeadingZeros(last + 1); level >= 0; level--) {
+            int from = (1 << level) - 1;
+            int to = Math.min((from << 1) + 1, last + 1);
+            pool.invoke(new SiftDownTask(from, to));
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.queue = name;
+            event.size = size;
+            event.commit();
+        }
+    }
+
+    //  removes the elements at the given ascending indices and leaves the same layout as
+    //  removeIf with a filter matching them, so a logged removeIf can be replayed
+    void removeAll(int[] indices, int count) {
+        if (count == 0) {
+            return;
+        }
         Object[] data = this.data;
         int size = this.size;
-        int dest = 0;
-        for (int i = 0; i < size; i++) {
-            @SuppressWarnings("unchecked")
-            E element = (E) data[i];
-            if (!filter.test(element)) {
-                dest++;
+        int dest = indices[0];
+        int next = 0;
+        for (int i = dest; i < size; i++) {
+            if (next < count && indices[next] == i) {
+                next++;
+            } else {
+                data[dest++] = data[i];
             }
-            data[dest] = data[i];
-        }
-        if (size == dest) {
-            return false;
         }
         this.size = dest;
+        modCount++;
         for (int i = dest; i < size; i++) {
             data[i] = null;
         }
         heapify();
-        return true;
+        if (dest < shrinkBelow) {
+            shrink();
+        }
     }
 
-    @Override
-    public void forEach(Consumer<? super E> action) {
-        Object[] data = this.data;
-        int size = this.size;
-        for (int i = 0; i < size; i++) {
-            @SuppressWarnings("unchecked")
-            E element = (E) data[i];
-            action.accept(element);
-        }
+    //  priority order without mutating or copying the queue, the queue must not be
+    //  modified while the iterator is in use
+    public Iterator<E> orderedIterator() {
+        return new OrderedIterator();
+    }
+
+    public Spliterator<E> orderedSpliterator() {
+        return new OrderedIterator();
+    }
+
+    public Stream<E> orderedStream() {
+        return StreamSupport.stream(orderedSpliterator(), false);
+    }
+
+    //  heap order, splits the backing array in halves for parallel streams
+    public Spliterator<E> spliterator() {
+        return Spliterators.spliterator(data, 0, size, 0);
+    }
+
+    public Stream<E> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    public Stream<E> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public ArrayHeapQueue<E> clone() {
-        ArrayHeapQueue<E> clone;
-        try {
-            clone = (ArrayHeapQueue<E>) super.clone();
-        } catch (CloneNotSupportedException e) {
-            throw new InternalError(e);
-        }
-        Object[] data = this.data;
-        Object[] array = new Object[data.length];
-        System.arraycopy(data, 0, array, 0, size);
-        clone.data = array;
-        return clone;
+        return (ArrayHeapQueue<E>) super.clone();
     }
 
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        ArrayHeapQueue<?> that = (ArrayHeapQueue<?>) o;
-        int size = this.size;
-        if (size != that.size) {
-            return false;
+    private final class FilterTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Predicate<? super E> filter;
+
+        private final int chunkSize;
+
+        private final int[] kept;
+
+        private final int from;
+
+        private final int to;
+
+        FilterTask(Predicate<? super E> filter, int chunkSize, int[] kept, int from, int to) {
+            this.filter = filter;
+            this.chunkSize = chunkSize;
+            this.kept = kept;
+            this.from = from;
+            this.to = to;
         }
-        Object[] d1 = this.data;
-        Object[] d2 = that.data;
-        for (int i = 0; i < size; i++) {
-            Object e1 = d1[i];
-            Object e2 = d2[i];
-            if (!Objects.equals(e1, e2)) {
-                return false;
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new FilterTask(filter, chunkSize, kept, from, mid),
+                        new FilterTask(filter, chunkSize, kept, mid, to));
+                return;
+            }
+            Object[] data = ArrayHeapQueue.this.data;
+            int start = from * chunkSize;
+            int end = Math.min(start + chunkSize, size);
+            int dest = start;
+            for (int i = start; i < end; i++) {
+                @SuppressWarnings("unchecked")
+                E element = (E) data[i];
+                if (!filter.test(element)) {
+                    data[dest++] = element;
+                }
             }
+            kept[from] = dest - start;
         }
-        return true;
     }
 
-    @Override
-    public int hashCode() {
-        Object[] data = this.data;
-        int size = this.size;
-        int hash = size == 0 ? 31 : size;
-        for (int i = 0; i < size; i++) {
-            Object e = data[i];
-            hash = 31 * hash + (e != null ? e.hashCode() : 0);
+    private final class SiftDownTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+
+        private final int to;
+
+        SiftDownTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > PARALLEL_GRAIN) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new SiftDownTask(from, mid), new SiftDownTask(mid, to));
+                return;
+            }
+            Object[] data = ArrayHeapQueue.this.data;
+            for (int i = to - 1; i >= from; i--) {
+                @SuppressWarnings("unchecked")
+                E element = (E) data[i];
+                siftDown(i, element);
+            }
         }
-        return hash;
     }
 
-    @Override
-    public String toString() {
-        int size = this.size;
-        if (size == 0) {
-            return "[]";
+    //  the frontier is a heap of the indices whose parents have already been returned,
+    //  so the first k elements cost O(k log k) whatever the size of the queue
+    private final class OrderedIterator implements Iterator<E>, Spliterator<E> {
+
+        private final Object[] data;
+
+        private final int size;
+
+        private final int expectedModCount;
+
+        private int[] frontier;
+
+        private int frontierSize;
+
+        private int remaining;
+
+        OrderedIterator() {
+            this.data = ArrayHeapQueue.this.data;
+            this.size = ArrayHeapQueue.this.size;
+            this.expectedModCount = modCount;
+            this.frontier = new int[16];
+            this.frontierSize = size == 0 ? 0 : 1;
+            this.remaining = size;
+        }
+
+        private void push(int index) {
+            int[] frontier = this.frontier;
+            int position = frontierSize++;
+            if (position == frontier.length) {
+                this.frontier = frontier = Arrays.copyOf(frontier, position << 1);
+            }
+            @SuppressWarnings("unchecked")
+            E e = (E) data[index];
+            while (position > 0) {
+                int parentPosition = HeapQueue.parent(position);
+                int parent = frontier[parentPosition];
+                @SuppressWarnings("unchecked")
+                E parentElement = (E) data[parent];
+                if (comparator.compare(e, parentElement) >= 0) {
+                    break;
+                }
+                frontier[position] = parent;
+                position = parentPosition;
+            }
+            frontier[position] = index;
+        }
+
+        private void replaceTop(int index) {
+            Object[] data = this.data;
+            int[] frontier = this.frontier;
+            int frontierSize = this.frontierSize;
+            @SuppressWarnings("unchecked")
+            E e = (E) data[index];
+            int position = 0;
+            int mid = frontierSize >>> 1;
+            while (position < mid) {
+                int minPosition = HeapQueue.left(position);
+                int min = frontier[minPosition];
+                int rightPosition = minPosition + 1;
+                if (rightPosition < frontierSize) {
+                    int right = frontier[rightPosition];
+                    @SuppressWarnings("unchecked")
+                    E leftElement = (E) data[min];
+                    @SuppressWarnings("unchecked")
+                    E rightElement = (E) data[right];
+                    if (comparator.compare(leftElement, rightElement) > 0) {
+                        minPosition = rightPosition;
+                        min = right;
+                    }
+                }
+                @SuppressWarnings("unchecked")
+                E minElement = (E) data[min];
+                if (comparator.compare(e, minElement) <= 0) {
+                    break;
+                }
+                frontier[position] = min;
+                position = minPosition;
+            }
+            frontier[position] = index;
+        }
+
+        private E advance() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            int top = frontier[0];
+            int left = HeapQueue.left(top);
+            if (left < size) {
+                replaceTop(left);
+                if (left + 1 < size) {
+                    push(left + 1);
+                }
+            } else {
+                int last = --frontierSize;
+                if (last > 0) {
+                    replaceTop(frontier[last]);
+                }
+            }
+            remaining--;
+            @SuppressWarnings("unchecked")
+            E element = (E) data[top];
+            return element;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public E next() {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            return advance();
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            if (remaining == 0) {
+                return false;
+            }
+            action.accept(advance());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            while (remaining > 0) {
+                action.accept(advance());
+            }
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SORTED | Spliterator.SIZED;
+        }
+
+        @Override
+        public Comparator<? super E> getComparator() {
+            return comparator;
         }
-        Object[] data = this.data;
-        StringBuilder sb = new StringBuilder();
-        sb.append('[');
-        for (int i = 0; i < size; i++) {
-            Object e = data[i];
-            sb.append(e).append(',').append(' ');
-        }
-        sb.setLength(sb.length() - 2);
-        sb.append(']');
-        return sb.toString();
     }
 }
@@ -0,0 +1,319 @@
+package com.example.heap.core;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+//  in delay mode an element becomes available once System.nanoTime() reaches its
+//  deadline; the wrapped queue should order elements by that deadline
+public class BlockingHeapQueue<E> implements HeapQueue<E> {
+
+    private final HeapQueue<E> queue;
+
+    private final ToLongFunction<? super E> deadline;
+
+    private final ReentrantLock lock;
+
+    private final Condition available;
+
+    //  the only thread doing a timed wait for the head, the others wait indefinitely
+    private Thread leader;
+
+    public BlockingHeapQueue(HeapQueue<E> queue) {
+        this(queue, null);
+    }
+
+    public BlockingHeapQueue(HeapQueue<E> queue, ToLongFunction<? super E> deadline) {
+        this.queue = Objects.requireNonNull(queue, "queue is null");
+        this.deadline = deadline;
+        this.lock = new ReentrantLock();
+        this.available = lock.newCondition();
+    }
+
+    private long delayOf(E e) {
+        ToLongFunction<? super E> deadline = this.deadline;
+        return deadline == null ? 0L : deadline.applyAsLong(e) - System.nanoTime();
+    }
+
+    private E readyHead() {
+        E first = queue.peek();
+        return first == null || delayOf(first) > 0L ? null : first;
+    }
+
+    @Override
+    public Comparator<? super E> comparator() {
+        return queue.comparator();
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            return queue.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(E e) {
+        lock.lock();
+        try {
+            return queue.contains(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(E e) {
+        Objects.requireNonNull(e);
+        lock.lock();
+        try {
+            queue.offer(e);
+            if (deadline == null) {
+                available.signal();
+            } else if (queue.peek() == e) {
+                //  a new head may be due earlier than the leader is waiting for
+                leader = null;
+                available.signal();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(E e) {
+        offer(e);
+    }
+
+    @Override
+    public E peek() {
+        lock.lock();
+        try {
+            return queue.peek();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E poll() {
+        lock.lock();
+        try {
+            return readyHead() == null ? null : queue.poll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public E take() throws InterruptedException {
+        ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                E first = queue.peek();
+                if (first == null) {
+                    available.await();
+                    continue;
+                }
+                long delay = delayOf(first);
+                if (delay <= 0L) {
+                    return queue.poll();
+                }
+                if (leader != null) {
+                    available.await();
+                } else {
+                    Thread thisThread = Thread.currentThread();
+                    leader = thisThread;
+                    try {
+                        available.awaitNanos(delay);
+                    } finally {
+                        if (leader == thisThread) {
+                            leader = null;
+                        }
+                    }
+                }
+            }
+        } finally {
+            signalNext();
+            lock.unlock();
+        }
+    }
+
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                E first = queue.peek();
+                if (first == null) {
+                    if (nanos <= 0L) {
+                        return null;
+                    }
+                    nanos = available.awaitNanos(nanos);
+                    continue;
+                }
+                long delay = delayOf(first);
+                if (delay <= 0L) {
+                    return queue.poll();
+                }
+                if (nanos <= 0L) {
+                    return null;
+                }
+                if (nanos < delay || leader != null) {
+                    nanos = available.awaitNanos(nanos);
+                } else {
+                    Thread thisThread = Thread.currentThread();
+                    leader = thisThread;
+                    try {
+                        long timeLeft = available.awaitNanos(delay);
+                        nanos -= delay - timeLeft;
+                    } finally {
+                        if (leader == thisThread) {
+                            leader = null;
+                        }
+                    }
+                }
+            }
+        } finally {
+            signalNext();
+            lock.unlock();
+        }
+    }
+
+    //  a waiter that leaves, whether it took an element, timed out or was interrupted,
+    //  passes the signal on while elements are left, so a signal it consumed is never
+    //  lost; in delay mode only when no leader is already waiting for the head
+    private void signalNext() {
+        if ((deadline == null || leader == null) && queue.peek() != null) {
+            available.signal();
+        }
+    }
+
+    @Override
+    public int pollBatch(int k, Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        if (k <= 0) {
+            return 0;
+        }
+        lock.lock();
+        try {
+            if (deadline == null) {
+                return queue.pollBatch(k, action);
+            }
+            int n = 0;
+            while (n < k && readyHead() != null) {
+                action.accept(queue.poll());
+                n++;
+            }
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        Objects.requireNonNull(c);
+        return pollBatch(maxElements, c::add);
+    }
+
+    @Override
+    public int indexOf(E e) {
+        lock.lock();
+        try {
+            return queue.indexOf(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E get(int index) {
+        lock.lock();
+        try {
+            return queue.get(index);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E remove(int index) {
+        lock.lock();
+        try {
+            E removed = queue.remove(index);
+            if (index == 0) {
+                leader = null;
+                signalNext();
+            }
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            queue.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        lock.lock();
+        try {
+            if (!queue.removeIf(filter)) {
+                return false;
+            }
+            leader = null;
+            signalNext();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        lock.lock();
+        try {
+            queue.forEach(action);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            return queue.toString();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
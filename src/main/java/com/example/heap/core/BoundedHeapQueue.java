@@ -0,0 +1,115 @@
+package com.example.heap.core;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+
+//  keeps the capacity greatest elements: once full, the head is the smallest of them and
+//  an element that does not compare greater than it is rejected without touching the array
+public class BoundedHeapQueue<E> extends ArrayHeapQueue<E> {
+
+    public BoundedHeapQueue(Comparator<? super E> comparator, int capacity) {
+        super(comparator, checkCapacity(capacity), CapacityPolicy.DEFAULT
+                .withMaxCapacity(capacity)
+                .withOverflow(CapacityPolicy.Overflow.REJECT));
+    }
+
+    private static int checkCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity should be positive: " + capacity);
+        }
+        return capacity;
+    }
+
+    //  capacity() stays the length of the backing array, which only falls below the
+    //  bound after trimToSize
+    public int bound() {
+        return policy.maxCapacity();
+    }
+
+    public boolean isFull() {
+        return size == bound();
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (size < bound()) {
+            return super.offer(e);
+        }
+        @SuppressWarnings("unchecked")
+        E top = (E) data[0];
+        if (comparator.compare(e, top) <= 0) {
+            return false;
+        }
+        replaceTop(e);
+        return true;
+    }
+
+    //  returns the element that did not make it into the queue: null when there was
+    //  room, e itself when it was rejected, otherwise the evicted head
+    public E offerOrReplaceTop(E e) {
+        if (size < bound()) {
+            super.offer(e);
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        E top = (E) data[0];
+        if (comparator.compare(e, top) <= 0) {
+            return e;
+        }
+        replaceTop(e);
+        return top;
+    }
+
+    //  batches go through offer, the bulk paths of ArrayHeapQueue would drop what does not fit
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        return addAll(c.iterator());
+    }
+
+    @Override
+    public boolean addAll(E[] array) {
+        boolean modified = false;
+        for (E e : array) {
+            modified |= offer(e);
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean addAll(Iterator<? extends E> iterator) {
+        boolean modified = false;
+        while (iterator.hasNext()) {
+            modified |= offer(iterator.next());
+        }
+        return modified;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Object[] toSortedArray() {
+        Object[] array = Arrays.copyOf(data, size);
+        Arrays.sort(array, (Comparator<Object>) comparator);
+        return array;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T[] toSortedArray(T[] array) {
+        int size = this.size;
+        T[] sorted = array.length >= size
+                ? array
+                : (T[]) Array.newInstance(array.getClass().getComponentType(), size);
+        System.arraycopy(data, 0, sorted, 0, size);
+        Arrays.sort(sorted, 0, size, (Comparator<? super T>) comparator);
+        if (sorted.length > size) {
+            sorted[size] = null;
+        }
+        return sorted;
+    }
+
+    @Override
+    public BoundedHeapQueue<E> clone() {
+        return (BoundedHeapQueue<E>) super.clone();
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.heap.core;
+
+import java.util.Objects;
+
+//  immutable, every with* method returns a copy; below 64 elements the capacity doubles
+//  whatever the growth factor, the default grows by half above that and never shrinks
+//
+//  with a shrink threshold t, a queue whose size falls below t * capacity is cut down to
+//  the capacity it would have grown to for its current size, t below 1 / max(2, growthFactor)
+//  keeps the array from being shrunk right after a growth and the other way round
+public final class CapacityPolicy {
+
+    public enum Overflow {
+        REJECT, THROW
+    }
+
+    //  some VMs reserve header words in arrays
+    public static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    public static final CapacityPolicy DEFAULT = new CapacityPolicy(1.5, MAX_ARRAY_SIZE, Overflow.THROW, 0, 0);
+
+    private final double growthFactor;
+
+    private final int maxCapacity;
+
+    private final Overflow overflow;
+
+    private final double shrinkThreshold;
+
+    private final int minCapacity;
+
+    private CapacityPolicy(double growthFactor, int maxCapacity, Overflow overflow,
+                           double shrinkThreshold, int minCapacity) {
+        this.growthFactor = growthFactor;
+        this.maxCapacity = maxCapacity;
+        this.overflow = overflow;
+        this.shrinkThreshold = shrinkThreshold;
+        this.minCapacity = minCapacity;
+    }
+
+    public double growthFactor() {
+        return growthFactor;
+    }
+
+    public int maxCapacity() {
+        return maxCapacity;
+    }
+
+    public Overflow overflow() {
+        return overflow;
+    }
+
+    public double shrinkThreshold() {
+        return shrinkThreshold;
+    }
+
+    public int minCapacity() {
+        return minCapacity;
+    }
+
+    public CapacityPolicy withGrowthFactor(double growthFactor) {
+        if (!(growthFactor > 1)) {
+            throw new IllegalArgumentException("growthFactor should be greater than 1: " + growthFactor);
+        }
+        checkHysteresis(growthFactor, shrinkThreshold);
+        return new CapacityPolicy(growthFactor, maxCapacity, overflow, shrinkThreshold, minCapacity);
+    }
+
+    public CapacityPolicy withMaxCapacity(int maxCapacity) {
+        if (maxCapacity <= 0 || maxCapacity > MAX_ARRAY_SIZE) {
+            throw new IllegalArgumentException("maxCapacity should be in [1, " + MAX_ARRAY_SIZE + "]: " + maxCapacity);
+        }
+        return new CapacityPolicy(growthFactor, maxCapacity, overflow, shrinkThreshold, minCapacity);
+    }
+
+    public CapacityPolicy withOverflow(Overflow overflow) {
+        if (overflow == null) {
+            throw new IllegalArgumentException("overflow is null");
+        }
+        return new CapacityPolicy(growthFactor, maxCapacity, overflow, shrinkThreshold, minCapacity);
+    }
+
+    //  0 turns shrinking off
+    public CapacityPolicy withShrinkThreshold(double shrinkThreshold) {
+        if (!(shrinkThreshold >= 0)) {
+            throw new IllegalArgumentException("shrinkThreshold should not be negative: " + shrinkThreshold);
+        }
+        checkHysteresis(growthFactor, shrinkThreshold);
+        return new CapacityPolicy(growthFactor, maxCapacity, overflow, shrinkThreshold, minCapacity);
+    }
+
+    //  shrinking never goes below this capacity
+    public CapacityPolicy withMinCapacity(int minCapacity) {
+        if (minCapacity < 0) {
+            throw new IllegalArgumentException("minCapacity should not be negative: " + minCapacity);
+        }
+        return new CapacityPolicy(growthFactor, maxCapacity, overflow, shrinkThreshold, minCapacity);
+    }
+
+    //  small queues double, so the threshold also has to stay below 1 / 2
+    private static void checkHysteresis(double growthFactor, double shrinkThreshold) {
+        double factor = Math.max(growthFactor, 2);
+        if (shrinkThreshold * factor >= 1) {
+            throw new IllegalArgumentException("shrinkThreshold should be less than 1 / " + factor + ": "
+                    + shrinkThreshold);
+        }
+    }
+
+    //  capacity for a queue that needs to hold required elements, at most maxCapacity
+    int grow(int required) {
+        long capacity = required < 64
+                ? ((long) required << 1)
+                : (long) (required * growthFactor);
+        return (int) Math.min(Math.max(capacity, required + 1L), maxCapacity);
+    }
+
+    //  a queue shrinks when its size falls below this value, 0 if it never does
+    int shrinkBelow(int capacity) {
+        if (shrinkThreshold == 0 || capacity <= minCapacity) {
+            return 0;
+        }
+        return (int) (capacity * shrinkThreshold);
+    }
+
+    int shrink(int size) {
+        return Math.max(grow(size), minCapacity);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CapacityPolicy that = (CapacityPolicy) o;
+        return Double.compare(growthFactor, that.growthFactor) == 0
+                && maxCapacity == that.maxCapacity
+                && overflow == that.overflow
+                && Double.compare(shrinkThreshold, that.shrinkThreshold) == 0
+                && minCapacity == that.minCapacity;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(growthFactor, maxCapacity, overflow, shrinkThreshold, minCapacity);
+    }
+
+    @Override
+    public String toString() {
+        return "CapacityPolicy{" +
+                "growthFactor=" + growthFactor +
+                ", maxCapacity=" + maxCapacity +
+                ", overflow=" + overflow +
+                ", shrinkThreshold=" + shrinkThreshold +
+                ", minCapacity=" + minCapacity +
+                '}';
+    }
+}
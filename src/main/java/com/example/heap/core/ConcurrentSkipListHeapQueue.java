@@ -0,0 +1,182 @@
+package com.example.heap.core;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+//  elements are kept fully sorted, which is also a valid heap layout: index 0 is the
+//  head and index-based operations walk the skip list, so they cost O(index)
+public class ConcurrentSkipListHeapQueue<E> implements HeapQueue<E> {
+
+    private final ConcurrentSkipListMap<Node<E>, Boolean> map;
+
+    private final AtomicLong sequence;
+
+    private final LongAdder size;
+
+    private final Comparator<? super E> comparator;
+
+    public ConcurrentSkipListHeapQueue(Comparator<? super E> comparator) {
+        Objects.requireNonNull(comparator, "comparator is null");
+        //  equal elements are ordered by insertion so every node has a distinct key
+        this.map = new ConcurrentSkipListMap<>((n1, n2) -> {
+            int cmp = comparator.compare(n1.element, n2.element);
+            return cmp != 0 ? cmp : Long.compare(n1.sequence, n2.sequence);
+        });
+        this.sequence = new AtomicLong();
+        this.size = new LongAdder();
+        this.comparator = comparator;
+    }
+
+    private NavigableSet<Node<E>> nodes() {
+        return map.keySet();
+    }
+
+    @Override
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    @Override
+    public int size() {
+        long size = this.size.sum();
+        return size < 0 ? 0 : (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    @Override
+    public boolean contains(E e) {
+        return indexOf(e) >= 0;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        Objects.requireNonNull(e);
+        map.put(new Node<>(e, sequence.getAndIncrement()), Boolean.TRUE);
+        size.increment();
+        return true;
+    }
+
+    @Override
+    public E peek() {
+        Map.Entry<Node<E>, Boolean> first = map.firstEntry();
+        return first == null ? null : first.getKey().element;
+    }
+
+    @Override
+    public E poll() {
+        Map.Entry<Node<E>, Boolean> first = map.pollFirstEntry();
+        if (first == null) {
+            return null;
+        }
+        size.decrement();
+        return first.getKey().element;
+    }
+
+    @Override
+    public int indexOf(E e) {
+        if (e == null) {
+            return -1;
+        }
+        int index = 0;
+        for (Node<E> node : nodes()) {
+            if (e.equals(node.element)) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    @Override
+    public E get(int index) {
+        return node(index).element;
+    }
+
+    private Node<E> node(int index) {
+        if (index >= 0) {
+            Iterator<Node<E>> iterator = nodes().iterator();
+            for (int i = 0; iterator.hasNext(); i++) {
+                Node<E> node = iterator.next();
+                if (i == index) {
+                    return node;
+                }
+            }
+        }
+        throw new IndexOutOfBoundsException("Index: " + index);
+    }
+
+    @Override
+    public E remove(int index) {
+        while (true) {
+            Node<E> node = node(index);
+            if (map.remove(node) != null) {
+                size.decrement();
+                return node.element;
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        while (map.pollFirstEntry() != null) {
+            size.decrement();
+        }
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        boolean modified = false;
+        for (Node<E> node : nodes()) {
+            if (filter.test(node.element) && map.remove(node) != null) {
+                size.decrement();
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        for (Node<E> node : nodes()) {
+            action.accept(node.element);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        for (Node<E> node : nodes()) {
+            sb.append(node.element).append(',').append(' ');
+        }
+        if (sb.length() > 1) {
+            sb.setLength(sb.length() - 2);
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+
+    private static class Node<E> {
+
+        private final E element;
+
+        private final long sequence;
+
+        private Node(E element, long sequence) {
+            this.element = element;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.example.heap.core;
+
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+//  element i is stored at data[i + arity - 1] so that the children of every node
+//  start at a multiple of the arity and fill the same cache line
+public class DaryHeapQueue<E> implements HeapQueue<E>, Cloneable {
+
+    private Object[] data;
+
+    private int size;
+
+    private final int arity;
+
+    private final int shift;
+
+    private final Comparator<? super E> comparator;
+
+    public DaryHeapQueue(Comparator<? super E> comparator, int arity) {
+        this(comparator, arity, 0);
+    }
+
+    public DaryHeapQueue(Comparator<? super E> comparator, int arity, int initialCapacity) {
+        if (arity < 2 || Integer.bitCount(arity) != 1) {
+            throw new IllegalArgumentException("arity should be a power of two: " + arity);
+        }
+        this.arity = arity;
+        this.shift = Integer.numberOfTrailingZeros(arity);
+        this.data = new Object[initialCapacity + arity - 1];
+        this.comparator = comparator;
+    }
+
+    public static int parent(int index, int arity) {
+        return (index - 1) / arity;
+    }
+
+    public static int child(int index, int arity) {
+        return index * arity + 1;
+    }
+
+    public int arity() {
+        return arity;
+    }
+
+    public void ensureCapacity(int minCapacity) {
+        int offset = arity - 1;
+        if (minCapacity + offset >= data.length) {
+            int newCapacity = minCapacity < 64
+                    ? (minCapacity << 1)
+                    : (minCapacity + (minCapacity >>> 1));
+            resize(newCapacity + offset);
+        }
+    }
+
+    public void trimToSize() {
+        int length = size + arity - 1;
+        if (length != data.length) {
+            resize(length);
+        }
+    }
+
+    private void resize(int length) {
+        Object[] array = new Object[length];
+        System.arraycopy(data, 0, array, 0, size + arity - 1);
+        data = array;
+    }
+
+    //  physical positions: the root is at arity - 1
+    private int parentPosition(int position) {
+        return (position >>> shift) + arity - 2;
+    }
+
+    private int childPosition(int position) {
+        return (position - arity + 2) << shift;
+    }
+
+    private void siftUp(int index, E e) {
+        Object[] data = this.data;
+        int root = arity - 1;
+        int position = index + root;
+        while (position > root) {
+            int parentPosition = parentPosition(position);
+            @SuppressWarnings("unchecked")
+            E parent = (E) data[parentPosition];
+            if (comparator.compare(e, parent) >= 0) {
+                break;
+            }
+            data[position] = parent;
+            position = parentPosition;
+        }
+        data[position] = e;
+    }
+
+    private void siftDown(int index, E e) {
+        Object[] data = this.data;
+        int arity = this.arity;
+        int end = size + arity - 1;
+        int position = index + arity - 1;
+        while (true) {
+            int childPosition = childPosition(position);
+            if (childPosition >= end) {
+                break;
+            }
+            int last = Math.min(childPosition + arity, end);
+            int minPosition = childPosition;
+            @SuppressWarnings("unchecked")
+            E min = (E) data[childPosition];
+            for (int i = childPosition + 1; i < last; i++) {
+                @SuppressWarnings("unchecked")
+                E child = (E) data[i];
+                if (comparator.compare(min, child) > 0) {
+                    minPosition = i;
+                    min = child;
+                }
+            }
+            if (comparator.compare(e, min) <= 0) {
+                break;
+            }
+            data[position] = min;
+            position = minPosition;
+        }
+        data[position] = e;
+    }
+
+    private void heapify() {
+        int size = this.size;
+        if (size < 2) {
+            return;
+        }
+        Object[] data = this.data;
+        int offset = arity - 1;
+        int i = parent(size - 1, arity);
+        while (i >= 0) {
+            @SuppressWarnings("unchecked")
+            E element = (E) data[i + offset];
+            siftDown(i, element);
+            i--;
+        }
+    }
+
+    @Override
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean contains(E e) {
+        return indexOf(e) >= 0;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        int lastIndex = this.size;
+        int newSize = lastIndex + 1;
+        ensureCapacity(newSize);
+        siftUp(lastIndex, e);
+        this.size = newSize;
+        return true;
+    }
+
+    @Override
+    public E peek() {
+        if (isEmpty()) {
+            return null;
+        }
+        return get(0);
+    }
+
+    @Override
+    public E poll() {
+        if (isEmpty()) {
+            return null;
+        }
+        return remove(0);
+    }
+
+    @Override
+    public int indexOf(E e) {
+        Object[] data = this.data;
+        int offset = arity - 1;
+        int end = size + offset;
+        if (e == null) {
+            for (int i = offset; i < end; i++) {
+                if (null == data[i]) {
+                    return i - offset;
+                }
+            }
+        } else {
+            for (int i = offset; i < end; i++) {
+                if (e.equals(data[i])) {
+                    return i - offset;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E get(int index) {
+        return (E) data[index + arity - 1];
+    }
+
+    @Override
+    public E remove(int index) {
+        Object[] data = this.data;
+        int offset = arity - 1;
+        int lastIndex = --size;
+        @SuppressWarnings("unchecked")
+        E removed = (E) data[index + offset];
+        @SuppressWarnings("unchecked")
+        E last = (E) data[lastIndex + offset];
+        data[lastIndex + offset] = null;
+        if (lastIndex != index) {
+            siftDown(index, last);
+            if (data[index + offset] == last) {
+                siftUp(index, last);
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        Object[] data = this.data;
+        int offset = arity - 1;
+        int end = size + offset;
+        this.size = 0;
+        for (int i = offset; i < end; i++) {
+            data[i] = null;
+        }
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        Object[] data = this.data;
+        int offset = arity - 1;
+        int end = size + offset;
+        int dest = offset;
+        for (int i = offset; i < end; i++) {
+            @SuppressWarnings("unchecked")
+            E element = (E) data[i];
+            if (!filter.test(element)) {
+                data[dest++] = element;
+            }
+        }
+        if (end == dest) {
+            return false;
+        }
+        this.size = dest - offset;
+        for (int i = dest; i < end; i++) {
+            data[i] = null;
+        }
+        heapify();
+        return true;
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        Object[] data = this.data;
+        int offset = arity - 1;
+        int end = size + offset;
+        for (int i = offset; i < end; i++) {
+            @SuppressWarnings("unchecked")
+            E element = (E) data[i];
+            action.accept(element);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public DaryHeapQueue<E> clone() {
+        DaryHeapQueue<E> clone;
+        try {
+            clone = (DaryHeapQueue<E>) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+        clone.data = data.clone();
+        return clone;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DaryHeapQueue<?> that = (DaryHeapQueue<?>) o;
+        int size = this.size;
+        if (size != that.size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (!Objects.equals(get(i), that.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int size = this.size;
+        int hash = size == 0 ? 31 : size;
+        for (int i = 0; i < size; i++) {
+            E e = get(i);
+            hash = 31 * hash + (e != null ? e.hashCode() : 0);
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        int size = this.size;
+        if (size == 0) {
+            return "[]";
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        for (int i = 0; i < size; i++) {
+            sb.append(get(i)).append(',').append(' ');
+        }
+        sb.setLength(sb.length() - 2);
+        sb.append(']');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.heap.core;
+
+@FunctionalInterface
+public interface DoubleComparator {
+
+    int compare(double a, double b);
+
+    default DoubleComparator reversed() {
+        return (a, b) -> compare(b, a);
+    }
+
+    static DoubleComparator naturalOrder() {
+        return Double::compare;
+    }
+
+    static DoubleComparator reverseOrder() {
+        return (a, b) -> Double.compare(b, a);
+    }
+}
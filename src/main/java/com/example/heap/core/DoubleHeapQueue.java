@@ -0,0 +1,41 @@
+package com.example.heap.core;
+
+import java.util.function.DoubleConsumer;
+import java.util.function.DoublePredicate;
+
+public interface DoubleHeapQueue {
+
+    DoubleComparator comparator();
+
+    int size();
+
+    boolean isEmpty();
+
+    boolean contains(double e);
+
+    boolean offer(double e);
+
+    default boolean addAll(double[] array) {
+        boolean modified = false;
+        for (double e : array) {
+            modified |= offer(e);
+        }
+        return modified;
+    }
+
+    double peek();
+
+    double poll();
+
+    int indexOf(double e);
+
+    double get(int index);
+
+    double remove(int index);
+
+    void clear();
+
+    boolean removeIf(DoublePredicate filter);
+
+    void forEach(DoubleConsumer action);
+}
@@ -0,0 +1,482 @@
+package com.example.heap.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+
+//  an ArrayHeapQueue whose operations are appended to a memory-mapped log before they
+//  are applied; queue.<n>.snapshot holds the state that queue.<n>.log starts from, and
+//  a new generation is started once the log grows past the compaction size
+//
+//  a log record is: int length, operation byte and payload (length bytes), int CRC32
+//
+//  an operation that the queue rejects, such as an offer whose comparison throws, has
+//  its record wiped from the log again, so replay never sees it
+public class DurableHeapQueue<E> implements HeapQueue<E>, Closeable {
+
+    private static final byte OFFER = 1;
+
+    private static final byte REMOVE = 2;
+
+    private static final byte REMOVE_ALL = 3;
+
+    private static final byte CLEAR = 4;
+
+    private static final int INITIAL_LOG_CAPACITY = 1 << 20;
+
+    private static final int DEFAULT_COMPACTION_BYTES = 64 << 20;
+
+    private static final String PREFIX = "queue.";
+
+    private static final String SNAPSHOT = ".snapshot";
+
+    private static final String LOG = ".log";
+
+    private final Path directory;
+
+    private final ElementCodec<E> codec;
+
+    private final SyncPolicy policy;
+
+    private final int compactionBytes;
+
+    private final RecordOutput record;
+
+    private final DataOutputStream recordOut;
+
+    private final CRC32 crc;
+
+    private ArrayHeapQueue<E> queue;
+
+    private long generation;
+
+    private FileChannel channel;
+
+    private MappedByteBuffer log;
+
+    private int pending;
+
+    private long lastSyncNanos;
+
+    //  log position of the next automatic compaction, pushed back when one fails
+    private long compactAt;
+
+    private IOException compactionFailure;
+
+    public DurableHeapQueue(Path directory, Comparator<? super E> comparator,
+                            ElementCodec<E> codec, SyncPolicy policy) throws IOException {
+        this(directory, comparator, codec, policy, DEFAULT_COMPACTION_BYTES);
+    }
+
+    public DurableHeapQueue(Path directory, Comparator<? super E> comparator,
+                            ElementCodec<E> codec, SyncPolicy policy, int compactionBytes) throws IOException {
+        if (codec == null) {
+            throw new IllegalArgumentException("codec is null");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("policy is null");
+        }
+        if (compactionBytes <= 0) {
+            throw new IllegalArgumentException("compactionBytes should be positive: " + compactionBytes);
+        }
+        this.directory = directory;
+        this.codec = codec;
+        this.policy = policy;
+        this.compactionBytes = compactionBytes;
+        this.compactAt = compactionBytes;
+        this.record = new RecordOutput();
+        this.recordOut = new DataOutputStream(record);
+        this.crc = new CRC32();
+        Files.createDirectories(directory);
+        long generation = latestSnapshot();
+        if (generation < 0) {
+            this.generation = 0;
+            this.queue = new ArrayHeapQueue<>(comparator);
+        } else {
+            this.generation = generation;
+            this.queue = HeapSnapshot.readArrayHeapQueue(file(generation, SNAPSHOT), comparator, codec);
+        }
+        openLog();
+        HeapSnapshot.forceDirectory(directory);
+        deleteBefore(this.generation);
+        this.lastSyncNanos = System.nanoTime();
+    }
+
+    public SyncPolicy policy() {
+        return policy;
+    }
+
+    private Path file(long generation, String suffix) {
+        return directory.resolve(PREFIX + generation + suffix);
+    }
+
+    private static long generationOf(String name, String suffix) {
+        if (!name.startsWith(PREFIX) || !name.endsWith(suffix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - suffix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private long latestSnapshot() throws IOException {
+        long latest = -1;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                latest = Math.max(latest, generationOf(file.getFileName().toString(), SNAPSHOT));
+            }
+        }
+        return latest;
+    }
+
+    private void deleteBefore(long generation) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(HeapSnapshot.TEMPORARY)
+                        || generationOf(name, SNAPSHOT) >= 0 && generationOf(name, SNAPSHOT) < generation
+                        || generationOf(name, LOG) >= 0 && generationOf(name, LOG) < generation) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private void openLog() throws IOException {
+        channel = FileChannel.open(file(generation, LOG),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        long length = channel.size();
+        int capacity = (int) Math.min(Math.max(length, INITIAL_LOG_CAPACITY), Integer.MAX_VALUE);
+        log = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        replay();
+    }
+
+    private void replay() throws IOException {
+        MappedByteBuffer log = this.log;
+        int capacity = log.capacity();
+        int position = 0;
+        while (capacity - position >= 2 * Integer.BYTES) {
+            int length = log.getInt(position);
+            if (length <= 0 || length > capacity - position - 2 * Integer.BYTES) {
+                break;
+            }
+            byte[] bytes = new byte[length];
+            ByteBuffer view = log.duplicate();
+            view.position(position + Integer.BYTES);
+            view.get(bytes);
+            crc.reset();
+            crc.update(bytes, 0, length);
+            if ((int) crc.getValue() != view.getInt()) {
+                break;
+            }
+            apply(bytes, length);
+            position = view.position();
+        }
+        //  a torn tail is zeroed so that new records can never run into its leftovers
+        log.position(position);
+        byte[] zeros = new byte[8192];
+        while (log.hasRemaining()) {
+            log.put(zeros, 0, Math.min(zeros.length, log.remaining()));
+        }
+        log.position(position);
+    }
+
+    private void apply(byte[] bytes, int length) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 1, length - 1));
+        switch (bytes[0]) {
+            case OFFER:
+                queue.offer(codec.decode(in));
+                break;
+            case REMOVE:
+                queue.remove(in.readInt());
+                break;
+            case REMOVE_ALL:
+                int count = in.readInt();
+                int[] indices = new int[count];
+                for (int i = 0; i < count; i++) {
+                    indices[i] = in.readInt();
+                }
+                queue.removeAll(indices, count);
+                break;
+            case CLEAR:
+                queue.clear();
+                break;
+            default:
+                throw new IOException("unknown log operation: " + bytes[0]);
+        }
+    }
+
+    private void begin(byte operation) {
+        record.reset();
+        record.write(operation);
+    }
+
+    //  returns the position of the record, for rollback
+    private int append() throws IOException {
+        int length = record.size();
+        byte[] bytes = record.buffer();
+        crc.reset();
+        crc.update(bytes, 0, length);
+        if (log.remaining() < length + 2 * Integer.BYTES) {
+            grow(length + 2 * Integer.BYTES);
+        }
+        MappedByteBuffer log = this.log;
+        int position = log.position();
+        log.putInt(length);
+        log.put(bytes, 0, length);
+        log.putInt((int) crc.getValue());
+        return position;
+    }
+
+    //  zeroes the records from position on, the tail has to stay zero for replay
+    private void rollback(int position) {
+        MappedByteBuffer log = this.log;
+        int end = log.position();
+        for (int i = position; i < end; i++) {
+            log.put(i, (byte) 0);
+        }
+        log.position(position);
+    }
+
+    private void grow(int recordBytes) throws IOException {
+        int position = log.position();
+        long capacity = Math.max((long) log.capacity() << 1, (long) position + recordBytes);
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IOException("log is full: " + position + " bytes");
+        }
+        log.force();
+        log = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        log.position(position);
+    }
+
+    private void commit() {
+        pending++;
+        if (policy.shouldSync(pending, lastSyncNanos)) {
+            sync();
+        }
+        //  the operation is already logged and applied, so a failed compaction is kept
+        //  for compactionFailure and retried once the log has grown by another round
+        if (log.position() >= compactAt) {
+            try {
+                compact();
+            } catch (IOException e) {
+                compactionFailure = e;
+                compactAt = log.position() + (long) compactionBytes;
+            }
+        }
+    }
+
+    //  the last automatic compaction failure, null once a compaction succeeds
+    public IOException compactionFailure() {
+        return compactionFailure;
+    }
+
+    public void sync() {
+        log.force();
+        pending = 0;
+        lastSyncNanos = System.nanoTime();
+    }
+
+    //  the snapshot is complete once it appears under its name, and the old generation is
+    //  deleted only after the directory holding the new one is forced, so a crash or a
+    //  power loss at any point leaves either the old or the new generation complete
+    public void compact() throws IOException {
+        long next = generation + 1;
+        HeapSnapshot.write(queue, codec, file(next, SNAPSHOT));
+        channel.close();
+        generation = next;
+        Files.deleteIfExists(file(next, LOG));
+        openLog();
+        HeapSnapshot.forceDirectory(directory);
+        deleteBefore(next);
+        pending = 0;
+        lastSyncNanos = System.nanoTime();
+        compactAt = compactionBytes;
+        compactionFailure = null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel.isOpen()) {
+            sync();
+            channel.close();
+        }
+    }
+
+    @Override
+    public Comparator<? super E> comparator() {
+        return queue.comparator();
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    @Override
+    public boolean contains(E e) {
+        return queue.contains(e);
+    }
+
+    @Override
+    public boolean offer(E e) {
+        int position;
+        try {
+            begin(OFFER);
+            codec.encode(e, recordOut);
+            position = append();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        try {
+            queue.offer(e);
+        } catch (RuntimeException ex) {
+            rollback(position);
+            throw ex;
+        }
+        commit();
+        return true;
+    }
+
+    @Override
+    public E peek() {
+        return queue.peek();
+    }
+
+    @Override
+    public E poll() {
+        if (queue.isEmpty()) {
+            return null;
+        }
+        return remove(0);
+    }
+
+    @Override
+    public int indexOf(E e) {
+        return queue.indexOf(e);
+    }
+
+    @Override
+    public E get(int index) {
+        return queue.get(index);
+    }
+
+    @Override
+    public E remove(int index) {
+        int size = queue.size();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        try {
+            begin(REMOVE);
+            recordOut.writeInt(index);
+            append();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        E removed = queue.remove(index);
+        commit();
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        try {
+            begin(CLEAR);
+            append();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        queue.clear();
+        commit();
+    }
+
+    //  the filter is evaluated once and the removed indices are logged, so replay
+    //  does not depend on the predicate
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        ArrayHeapQueue<E> queue = this.queue;
+        int size = queue.size();
+        int[] indices = new int[16];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (filter.test(queue.get(i))) {
+                if (count == indices.length) {
+                    indices = Arrays.copyOf(indices, count << 1);
+                }
+                indices[count++] = i;
+            }
+        }
+        if (count == 0) {
+            return false;
+        }
+        try {
+            begin(REMOVE_ALL);
+            recordOut.writeInt(count);
+            for (int i = 0; i < count; i++) {
+                recordOut.writeInt(indices[i]);
+            }
+            append();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        queue.removeAll(indices, count);
+        commit();
+        return true;
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        queue.forEach(action);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DurableHeapQueue<?> that = (DurableHeapQueue<?>) o;
+        return queue.equals(that.queue);
+    }
+
+    @Override
+    public int hashCode() {
+        return queue.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return queue.toString();
+    }
+
+    private static final class RecordOutput extends ByteArrayOutputStream {
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+}
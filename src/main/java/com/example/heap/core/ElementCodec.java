@@ -0,0 +1,54 @@
+package com.example.heap.core;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public interface ElementCodec<E> {
+
+    void encode(E e, DataOutput out) throws IOException;
+
+    E decode(DataInput in) throws IOException;
+
+    static ElementCodec<Integer> integers() {
+        return new ElementCodec<>() {
+            @Override
+            public void encode(Integer e, DataOutput out) throws IOException {
+                out.writeInt(e);
+            }
+
+            @Override
+            public Integer decode(DataInput in) throws IOException {
+                return in.readInt();
+            }
+        };
+    }
+
+    static ElementCodec<Long> longs() {
+        return new ElementCodec<>() {
+            @Override
+            public void encode(Long e, DataOutput out) throws IOException {
+                out.writeLong(e);
+            }
+
+            @Override
+            public Long decode(DataInput in) throws IOException {
+                return in.readLong();
+            }
+        };
+    }
+
+    static ElementCodec<String> strings() {
+        return new ElementCodec<>() {
+            @Override
+            public void encode(String e, DataOutput out) throws IOException {
+                out.writeUTF(e);
+            }
+
+            @Override
+            public String decode(DataInput in) throws IOException {
+                return in.readUTF();
+            }
+        };
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.heap.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+//  keeps at most memoryBudget elements in an ArrayHeapQueue, when it fills up the
+//  buffer is written to disk as a sorted run; poll takes the smaller of the buffer top
+//  and the smallest run head, and runs are read back sequentially
+public class ExternalHeapQueue<E> implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    //  past this many runs some are merged to bound open files and read buffers
+    private static final int MAX_RUNS = 64;
+
+    //  a merge takes the smallest runs, so runs of similar size are merged together and
+    //  every element is rewritten about log(size / memoryBudget) / log(MERGE_RUNS) times
+    private static final int MERGE_RUNS = MAX_RUNS / 2;
+
+    private final Comparator<? super E> comparator;
+
+    private final ElementCodec<E> codec;
+
+    private final int memoryBudget;
+
+    private final Path directory;
+
+    private final ArrayHeapQueue<E> buffer;
+
+    private final ArrayHeapQueue<Run<E>> runs;
+
+    private final E[] spill;
+
+    private long size;
+
+    //  elements written to run files, spills and merges
+    private long writtenElements;
+
+    public ExternalHeapQueue(Comparator<? super E> comparator, ElementCodec<E> codec,
+                             int memoryBudget, Path directory) {
+        if (codec == null) {
+            throw new IllegalArgumentException("codec is null");
+        }
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException("memoryBudget should be positive: " + memoryBudget);
+        }
+        if (directory == null) {
+            throw new IllegalArgumentException("directory is null");
+        }
+        this.comparator = comparator;
+        this.codec = codec;
+        this.memoryBudget = memoryBudget;
+        this.directory = directory;
+        this.buffer = new ArrayHeapQueue<>(comparator, memoryBudget + 1);
+        this.runs = new ArrayHeapQueue<>((a, b) -> comparator.compare(a.head, b.head));
+        @SuppressWarnings("unchecked")
+        E[] spill = (E[]) new Object[memoryBudget];
+        this.spill = spill;
+    }
+
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    public int memoryBudget() {
+        return memoryBudget;
+    }
+
+    public int runCount() {
+        return runs.size();
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    long writtenElements() {
+        return writtenElements;
+    }
+
+    public boolean offer(E e) {
+        if (buffer.size() == memoryBudget) {
+            try {
+                spill();
+                if (runs.size() > MAX_RUNS) {
+                    mergeRuns();
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+        buffer.offer(e);
+        size++;
+        return true;
+    }
+
+    public E peek() {
+        E top = buffer.peek();
+        Run<E> run = runs.peek();
+        if (run == null) {
+            return top;
+        }
+        if (top != null && comparator.compare(top, run.head) <= 0) {
+            return top;
+        }
+        return run.head;
+    }
+
+    public E poll() {
+        Run<E> run = runs.peek();
+        if (run == null) {
+            if (buffer.isEmpty()) {
+                return null;
+            }
+            size--;
+            return buffer.poll();
+        }
+        E top = buffer.peek();
+        E polled;
+        if (top != null && comparator.compare(top, run.head) <= 0) {
+            polled = buffer.poll();
+        } else {
+            try {
+                polled = pollRun(runs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        size--;
+        return polled;
+    }
+
+    //  the run stays at the top until its next element is read, so a failed read loses
+    //  nothing but the run's position
+    private E pollRun(ArrayHeapQueue<Run<E>> runs) throws IOException {
+        Run<E> run = runs.peek();
+        E head = run.head;
+        if (run.next(codec)) {
+            runs.replaceTop(run);
+        } else {
+            runs.poll();
+            run.close();
+        }
+        return head;
+    }
+
+    private void spill() throws IOException {
+        //  pollBatch of the whole buffer would sort a copy of it, polling fills the
+        //  preallocated array without allocating a second budget-sized one
+        E[] spill = this.spill;
+        int count = 0;
+        while (!buffer.isEmpty()) {
+            spill[count++] = buffer.poll();
+        }
+        Path file = Files.createTempFile(directory, "run", ".bin");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE))) {
+            for (int i = 0; i < count; i++) {
+                codec.encode(spill[i], out);
+                spill[i] = null;
+            }
+        }
+        writtenElements += count;
+        openRun(file, count);
+    }
+
+    private void mergeRuns() throws IOException {
+        List<Run<E>> smallest = new ArrayList<>(runs.size());
+        runs.forEach(smallest::add);
+        smallest.sort(Comparator.comparingLong(run -> run.remaining));
+        Set<Run<E>> merged = new HashSet<>(smallest.subList(0, MERGE_RUNS));
+        ArrayHeapQueue<Run<E>> group = new ArrayHeapQueue<>(runs.comparator(), merged);
+        runs.removeIf(merged::contains);
+        Path file = Files.createTempFile(directory, "run", ".bin");
+        long count = 0;
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE))) {
+            while (!group.isEmpty()) {
+                codec.encode(pollRun(group), out);
+                count++;
+            }
+        }
+        writtenElements += count;
+        openRun(file, count);
+    }
+
+    private void openRun(Path file, long count) throws IOException {
+        Run<E> run = new Run<>(file, count);
+        if (run.next(codec)) {
+            runs.offer(run);
+        } else {
+            run.close();
+        }
+    }
+
+    public void clear() {
+        buffer.clear();
+        size = 0;
+        IOException failure = null;
+        while (!runs.isEmpty()) {
+            try {
+                runs.poll().close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw new UncheckedIOException(failure);
+        }
+    }
+
+    //  deletes every run file
+    @Override
+    public void close() throws IOException {
+        try {
+            clear();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ExternalHeapQueue[size=" + size + ", buffered=" + buffer.size() + ", runs=" + runs.size() + "]";
+    }
+
+    private static final class Run<E> implements Closeable {
+
+        private final Path file;
+
+        private final DataInputStream in;
+
+        private long remaining;
+
+        private E head;
+
+        Run(Path file, long count) throws IOException {
+            this.file = file;
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE));
+            this.remaining = count;
+        }
+
+        boolean next(ElementCodec<E> codec) throws IOException {
+            if (remaining == 0) {
+                head = null;
+                return false;
+            }
+            remaining--;
+            head = codec.decode(in);
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+            Files.deleteIfExists(file);
+        }
+    }
+}
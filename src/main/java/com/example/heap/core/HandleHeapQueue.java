@@ -0,0 +1,377 @@
+package com.example.heap.core;
+
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+public class HandleHeapQueue<E> implements HeapQueue<E> {
+
+    private static final Node<?>[] EMPTY_ARRAY = {};
+
+    private Node<E>[] data;
+
+    private int size;
+
+    private final Comparator<? super E> comparator;
+
+    @SuppressWarnings("unchecked")
+    public HandleHeapQueue(Comparator<? super E> comparator) {
+        this.data = (Node<E>[]) EMPTY_ARRAY;
+        this.comparator = comparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    public HandleHeapQueue(Comparator<? super E> comparator, int initialCapacity) {
+        if (initialCapacity == 0) {
+            this.data = (Node<E>[]) EMPTY_ARRAY;
+        } else {
+            this.data = (Node<E>[]) new Node<?>[initialCapacity];
+        }
+        this.comparator = comparator;
+    }
+
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity >= data.length) {
+            int newCapacity = minCapacity < 64
+                    ? (minCapacity << 1)
+                    : (minCapacity + (minCapacity >>> 1));
+            resize(newCapacity);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void trimToSize() {
+        int size = this.size;
+        if (size == 0) {
+            data = (Node<E>[]) EMPTY_ARRAY;
+        } else if (size != data.length) {
+            resize(size);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void resize(int length) {
+        Node<E>[] array = (Node<E>[]) new Node<?>[length];
+        System.arraycopy(data, 0, array, 0, size);
+        data = array;
+    }
+
+    private void siftUp(int index, Node<E> node) {
+        Node<E>[] data = this.data;
+        E e = node.element;
+        while (index > 0) {
+            int parentIndex = HeapQueue.parent(index);
+            Node<E> parent = data[parentIndex];
+            int cmp = comparator.compare(e, parent.element);
+            if (cmp >= 0) {
+                break;
+            }
+            data[index] = parent;
+            parent.index = index;
+            index = parentIndex;
+        }
+        data[index] = node;
+        node.index = index;
+    }
+
+    private void siftDown(int index, Node<E> node) {
+        Node<E>[] data = this.data;
+        int size = this.size;
+        int mid = size >>> 1;
+        E e = node.element;
+        while (index < mid) {
+            int leftIndex = HeapQueue.left(index);
+            int minIndex = leftIndex;
+            Node<E> min = data[leftIndex];
+            int rightIndex = HeapQueue.right(index);
+            if (rightIndex < size) {
+                Node<E> right = data[rightIndex];
+                int cmp = comparator.compare(min.element, right.element);
+                if (cmp > 0) {
+                    minIndex = rightIndex;
+                    min = right;
+                }
+            }
+            if (comparator.compare(e, min.element) <= 0) {
+                break;
+            }
+            data[index] = min;
+            min.index = index;
+            index = minIndex;
+        }
+        data[index] = node;
+        node.index = index;
+    }
+
+    private void heapify() {
+        Node<E>[] data = this.data;
+        int i = (size >>> 1) - 1;
+        while (i >= 0) {
+            siftDown(i, data[i]);
+            i--;
+        }
+    }
+
+    @Override
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean contains(E e) {
+        return indexOf(e) >= 0;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        insert(e);
+        return true;
+    }
+
+    public HeapHandle<E> insert(E e) {
+        return insertNode(e);
+    }
+
+    Node<E> insertNode(E e) {
+        Node<E> node = new Node<>(this, e);
+        int lastIndex = this.size;
+        int newSize = lastIndex + 1;
+        ensureCapacity(newSize);
+        siftUp(lastIndex, node);
+        this.size = newSize;
+        return node;
+    }
+
+    @Override
+    public E peek() {
+        if (isEmpty()) {
+            return null;
+        }
+        return get(0);
+    }
+
+    @Override
+    public E poll() {
+        if (isEmpty()) {
+            return null;
+        }
+        return remove(0);
+    }
+
+    @Override
+    public int indexOf(E e) {
+        Node<E>[] data = this.data;
+        int size = this.size;
+        if (e == null) {
+            for (int i = 0; i < size; i++) {
+                if (null == data[i].element) {
+                    return i;
+                }
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                if (e.equals(data[i].element)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    public HeapHandle<E> handle(int index) {
+        return data[index];
+    }
+
+    @Override
+    public E get(int index) {
+        return data[index].element;
+    }
+
+    @Override
+    public E remove(int index) {
+        Node<E>[] data = this.data;
+        int lastIndex = --size;
+        Node<E> removed = data[index];
+        Node<E> last = data[lastIndex];
+        data[lastIndex] = null;
+        if (lastIndex != index) {
+            siftDown(index, last);
+            if (data[index] == last) {
+                siftUp(index, last);
+            }
+        }
+        removed.invalidate();
+        return removed.element;
+    }
+
+    void update(Node<E> node) {
+        int index = node.index;
+        siftUp(index, node);
+        if (node.index == index) {
+            siftDown(index, node);
+        }
+    }
+
+    @Override
+    public void clear() {
+        Node<E>[] data = this.data;
+        int size = this.size;
+        this.size = 0;
+        for (int i = 0; i < size; i++) {
+            data[i].invalidate();
+            data[i] = null;
+        }
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        Node<E>[] data = this.data;
+        int size = this.size;
+        int dest = 0;
+        for (int i = 0; i < size; i++) {
+            Node<E> node = data[i];
+            if (filter.test(node.element)) {
+                node.invalidate();
+            } else {
+                data[dest++] = node;
+            }
+        }
+        if (size == dest) {
+            return false;
+        }
+        this.size = dest;
+        for (int i = dest; i < size; i++) {
+            data[i] = null;
+        }
+        for (int i = 0; i < dest; i++) {
+            data[i].index = i;
+        }
+        heapify();
+        return true;
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        Node<E>[] data = this.data;
+        int size = this.size;
+        for (int i = 0; i < size; i++) {
+            action.accept(data[i].element);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        HandleHeapQueue<?> that = (HandleHeapQueue<?>) o;
+        int size = this.size;
+        if (size != that.size) {
+            return false;
+        }
+        Node<E>[] d1 = this.data;
+        Node<?>[] d2 = that.data;
+        for (int i = 0; i < size; i++) {
+            if (!Objects.equals(d1[i].element, d2[i].element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        Node<E>[] data = this.data;
+        int size = this.size;
+        int hash = size == 0 ? 31 : size;
+        for (int i = 0; i < size; i++) {
+            E e = data[i].element;
+            hash = 31 * hash + (e != null ? e.hashCode() : 0);
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        int size = this.size;
+        if (size == 0) {
+            return "[]";
+        }
+        Node<E>[] data = this.data;
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        for (int i = 0; i < size; i++) {
+            sb.append(data[i].element).append(',').append(' ');
+        }
+        sb.setLength(sb.length() - 2);
+        sb.append(']');
+        return sb.toString();
+    }
+
+    static class Node<E> implements HeapHandle<E> {
+
+        private HandleHeapQueue<E> queue;
+
+        E element;
+
+        int index;
+
+        private Node(HandleHeapQueue<E> queue, E element) {
+            this.queue = queue;
+            this.element = element;
+        }
+
+        private void invalidate() {
+            queue = null;
+            index = -1;
+        }
+
+        @Override
+        public E get() {
+            return element;
+        }
+
+        @Override
+        public boolean isValid() {
+            return queue != null;
+        }
+
+        @Override
+        public void update() {
+            HandleHeapQueue<E> queue = this.queue;
+            if (queue == null) {
+                throw new IllegalStateException("handle is no longer queued");
+            }
+            queue.update(this);
+        }
+
+        @Override
+        public void update(E e) {
+            if (queue == null) {
+                throw new IllegalStateException("handle is no longer queued");
+            }
+            element = e;
+            queue.update(this);
+        }
+
+        @Override
+        public boolean remove() {
+            HandleHeapQueue<E> queue = this.queue;
+            if (queue == null) {
+                return false;
+            }
+            queue.remove(index);
+            return true;
+        }
+    }
+}
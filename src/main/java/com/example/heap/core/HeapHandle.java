@@ -0,0 +1,14 @@
+package com.example.heap.core;
+
+public interface HeapHandle<E> {
+
+    E get();
+
+    boolean isValid();
+
+    void update();
+
+    void update(E e);
+
+    boolean remove();
+}
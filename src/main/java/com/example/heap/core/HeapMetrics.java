@@ -0,0 +1,233 @@
+package com.example.heap.core;
+
+import java.util.concurrent.atomic.LongAdder;
+
+//  opt in with -Dcom.example.heap.metrics=true; ENABLED is a static final constant, so
+//  with metrics off the JIT folds every guarded block in the queues away
+public final class HeapMetrics {
+
+    public static final boolean ENABLED = Boolean.getBoolean("com.example.heap.metrics");
+
+    public enum Operation {
+        OFFER, POLL, REMOVE, REMOVE_IF
+    }
+
+    //  bucket i counts values in [2^(i - 1), 2^i), the last one everything above
+    private static final int LATENCY_BUCKETS = 40;
+
+    private static final int DEPTH_BUCKETS = 32;
+
+    private final LongAdder comparisons = new LongAdder();
+
+    private final LongAdder writes = new LongAdder();
+
+    private final LongAdder sifts = new LongAdder();
+
+    private final LongAdder siftLevels = new LongAdder();
+
+    private final LongAdder resizes = new LongAdder();
+
+    private final LongAdder copiedElements = new LongAdder();
+
+    private final LongAdder heapifies = new LongAdder();
+
+    private final LongAdder[] siftDepths = adders(DEPTH_BUCKETS);
+
+    private final LongAdder[][] latencies;
+
+    HeapMetrics() {
+        Operation[] operations = Operation.values();
+        LongAdder[][] latencies = new LongAdder[operations.length][];
+        for (int i = 0; i < operations.length; i++) {
+            latencies[i] = adders(LATENCY_BUCKETS);
+        }
+        this.latencies = latencies;
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static int bucket(long value) {
+        return Math.min(64 - Long.numberOfLeadingZeros(value), LATENCY_BUCKETS - 1);
+    }
+
+    //  a sift writes one slot per level it moves and one for the element itself
+    void sift(int levels, int comparisons) {
+        this.sifts.increment();
+        this.siftLevels.add(levels);
+        this.comparisons.add(comparisons);
+        this.writes.add(levels + 1);
+        this.siftDepths[Math.min(levels, DEPTH_BUCKETS - 1)].increment();
+    }
+
+    void resize(int copiedElements) {
+        this.resizes.increment();
+        this.copiedElements.add(copiedElements);
+        this.writes.add(copiedElements);
+    }
+
+    void heapify() {
+        this.heapifies.increment();
+    }
+
+    void record(Operation operation, long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        latencies[operation.ordinal()][bucket(Math.max(nanos, 0))].increment();
+    }
+
+    long count(Operation operation) {
+        long count = 0;
+        for (LongAdder adder : latencies[operation.ordinal()]) {
+            count += adder.sum();
+        }
+        return count;
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    public void reset() {
+        comparisons.reset();
+        writes.reset();
+        sifts.reset();
+        siftLevels.reset();
+        resizes.reset();
+        copiedElements.reset();
+        heapifies.reset();
+        for (LongAdder adder : siftDepths) {
+            adder.reset();
+        }
+        for (LongAdder[] histogram : latencies) {
+            for (LongAdder adder : histogram) {
+                adder.reset();
+            }
+        }
+    }
+
+    private static long[] sums(LongAdder[] adders) {
+        long[] sums = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            sums[i] = adders[i].sum();
+        }
+        return sums;
+    }
+
+    //  counters are read one by one while the queue may still be running, so a snapshot
+    //  is not atomic across counters
+    public static final class Snapshot {
+
+        private final long comparisons;
+
+        private final long writes;
+
+        private final long sifts;
+
+        private final long siftLevels;
+
+        private final long resizes;
+
+        private final long copiedElements;
+
+        private final long heapifies;
+
+        private final long[] siftDepths;
+
+        private final long[][] latencies;
+
+        private Snapshot(HeapMetrics metrics) {
+            this.comparisons = metrics.comparisons.sum();
+            this.writes = metrics.writes.sum();
+            this.sifts = metrics.sifts.sum();
+            this.siftLevels = metrics.siftLevels.sum();
+            this.resizes = metrics.resizes.sum();
+            this.copiedElements = metrics.copiedElements.sum();
+            this.heapifies = metrics.heapifies.sum();
+            this.siftDepths = sums(metrics.siftDepths);
+            long[][] latencies = new long[metrics.latencies.length][];
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = sums(metrics.latencies[i]);
+            }
+            this.latencies = latencies;
+        }
+
+        public long comparisons() {
+            return comparisons;
+        }
+
+        public long writes() {
+            return writes;
+        }
+
+        public long sifts() {
+            return sifts;
+        }
+
+        public long siftLevels() {
+            return siftLevels;
+        }
+
+        public long resizes() {
+            return resizes;
+        }
+
+        public long copiedElements() {
+            return copiedElements;
+        }
+
+        public long heapifies() {
+            return heapifies;
+        }
+
+        //  element i is the number of sifts that moved i levels
+        public long[] siftDepthHistogram() {
+            return siftDepths.clone();
+        }
+
+        //  element i is the number of operations that took [2^(i - 1), 2^i) nanoseconds
+        public long[] latencyHistogram(Operation operation) {
+            return latencies[operation.ordinal()].clone();
+        }
+
+        public long count(Operation operation) {
+            long count = 0;
+            for (long n : latencies[operation.ordinal()]) {
+                count += n;
+            }
+            return count;
+        }
+
+        //  upper bound in nanoseconds of the bucket holding the given fraction of operations
+        public long latencyPercentile(Operation operation, double fraction) {
+            if (fraction < 0 || fraction > 1) {
+                throw new IllegalArgumentException("fraction should be in [0, 1]: " + fraction);
+            }
+            long[] histogram = latencies[operation.ordinal()];
+            long rank = (long) Math.ceil(count(operation) * fraction);
+            long seen = 0;
+            for (int i = 0; i < histogram.length; i++) {
+                seen += histogram[i];
+                if (seen >= rank && seen > 0) {
+                    return i == histogram.length - 1 ? Long.MAX_VALUE : 1L << i;
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public String toString() {
+            return "comparisons=" + comparisons +
+                    ", writes=" + writes +
+                    ", sifts=" + sifts +
+                    ", siftLevels=" + siftLevels +
+                    ", resizes=" + resizes +
+                    ", copiedElements=" + copiedElements +
+                    ", heapifies=" + heapifies;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.heap.core;
 
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -16,10 +18,52 @@ public interface HeapQueue<E> {
 
     boolean offer(E e);
 
+    default boolean addAll(Collection<? extends E> c) {
+        return addAll(c.iterator());
+    }
+
+    default boolean addAll(E[] array) {
+        boolean modified = false;
+        for (E e : array) {
+            modified |= offer(e);
+        }
+        return modified;
+    }
+
+    default boolean addAll(Iterator<? extends E> iterator) {
+        boolean modified = false;
+        while (iterator.hasNext()) {
+            modified |= offer(iterator.next());
+        }
+        return modified;
+    }
+
     E peek();
 
     E poll();
 
+    default int pollBatch(int k, Consumer<? super E> action) {
+        int n = 0;
+        while (n < k && !isEmpty()) {
+            action.accept(poll());
+            n++;
+        }
+        return n;
+    }
+
+    default int pollBatch(int k, E[] array) {
+        int[] n = {0};
+        return pollBatch(Math.min(k, array.length), e -> array[n[0]++] = e);
+    }
+
+    default int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    default int drainTo(Collection<? super E> c, int maxElements) {
+        return pollBatch(maxElements, c::add);
+    }
+
     int indexOf(E e);
 
     E get(int index);
@@ -0,0 +1,114 @@
+package com.example.heap.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+//  flight recorder events for the expensive queue operations, a disabled event costs
+//  a flag check and no allocation once compiled
+final class HeapQueueEvents {
+
+    //  opt in with -Dcom.example.heap.siftEvents=true, the recording settings then decide
+    //  whether a Sift is committed; like HeapMetrics.ENABLED the JIT folds the sift paths
+    //  away while it is false, so offer and poll allocate no event
+    static final boolean SIFT_ENABLED = Boolean.getBoolean("com.example.heap.siftEvents");
+
+    private HeapQueueEvents() {
+    }
+
+    //  null unless SIFT_ENABLED
+    static Sift beginSift() {
+        if (!SIFT_ENABLED) {
+            return null;
+        }
+        Sift event = new Sift();
+        event.begin();
+        return event;
+    }
+
+    static void endSift(Sift event, String queue, int size) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.queue = queue;
+            event.size = size;
+            event.commit();
+        }
+    }
+
+    @Name("com.example.heap.Resize")
+    @Label("Heap Queue Resize")
+    @Category("Heap Queue")
+    static final class Resize extends Event {
+
+        @Label("Queue")
+        String queue;
+
+        @Label("Size")
+        int size;
+
+        @Label("Old Capacity")
+        int oldCapacity;
+
+        @Label("New Capacity")
+        int newCapacity;
+    }
+
+    @Name("com.example.heap.Heapify")
+    @Label("Heap Queue Heapify")
+    @Category("Heap Queue")
+    static final class Heapify extends Event {
+
+        @Label("Queue")
+        String queue;
+
+        @Label("Size")
+        int size;
+    }
+
+    @Name("com.example.heap.RemoveIf")
+    @Label("Heap Queue Remove If")
+    @Category("Heap Queue")
+    static final class RemoveIf extends Event {
+
+        @Label("Queue")
+        String queue;
+
+        @Label("Size Before")
+        int sizeBefore;
+
+        @Label("Removed")
+        int removed;
+    }
+
+    @Name("com.example.heap.Clear")
+    @Label("Heap Queue Clear")
+    @Category("Heap Queue")
+    @Threshold("1 ms")
+    static final class Clear extends Event {
+
+        @Label("Queue")
+        String queue;
+
+        @Label("Size")
+        int size;
+    }
+
+    //  off by default and only created with SIFT_ENABLED, when enabled every offer, poll
+    //  and remove reads the clock twice
+    @Name("com.example.heap.Sift")
+    @Label("Heap Queue Sift")
+    @Category("Heap Queue")
+    @Enabled(false)
+    @Threshold("100 us")
+    static final class Sift extends Event {
+
+        @Label("Queue")
+        String queue;
+
+        @Label("Size")
+        int size;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.heap.core;
+
+public interface HeapQueueMXBean {
+
+    String getName();
+
+    int getSize();
+
+    int getCapacity();
+
+    int getGrowthCount();
+
+    long getRetainedBytes();
+
+    //  the operation counts and rates come from HeapMetrics, they are -1 and NaN
+    //  unless metrics are enabled
+    long getOfferCount();
+
+    long getPollCount();
+
+    double getOfferRate();
+
+    double getPollRate();
+}
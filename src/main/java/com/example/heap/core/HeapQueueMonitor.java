@@ -0,0 +1,144 @@
+package com.example.heap.core;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+
+//  registers a queue on the platform MBean server as com.example.heap:type=HeapQueue,name=...
+//  and tags its flight recorder events with the same name; close() unregisters it and
+//  removes the tag
+public final class HeapQueueMonitor implements HeapQueueMXBean, Closeable {
+
+    private final String name;
+
+    private final ArrayHeapQueue<?> queue;
+
+    private final ObjectName objectName;
+
+    private final long[] lastCounts = new long[HeapMetrics.Operation.values().length];
+
+    private final long[] lastNanos = new long[HeapMetrics.Operation.values().length];
+
+    private HeapQueueMonitor(String name, ArrayHeapQueue<?> queue, ObjectName objectName) {
+        this.name = name;
+        this.queue = queue;
+        this.objectName = objectName;
+        HeapMetrics metrics = queue.metrics();
+        long now = System.nanoTime();
+        for (HeapMetrics.Operation operation : HeapMetrics.Operation.values()) {
+            int i = operation.ordinal();
+            lastCounts[i] = metrics == null ? 0 : metrics.count(operation);
+            lastNanos[i] = now;
+        }
+    }
+
+    public static HeapQueueMonitor register(String name, ArrayHeapQueue<?> queue) {
+        if (name == null) {
+            throw new IllegalArgumentException("name is null");
+        }
+        if (queue == null) {
+            throw new IllegalArgumentException("queue is null");
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName objectName = new ObjectName("com.example.heap:type=HeapQueue,name=" + ObjectName.quote(name));
+            HeapQueueMonitor monitor = new HeapQueueMonitor(name, queue, objectName);
+            server.registerMBean(monitor, objectName);
+            queue.name(name);
+            return monitor;
+        } catch (InstanceAlreadyExistsException e) {
+            throw new IllegalArgumentException("name is already registered: " + name, e);
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (InstanceNotFoundException e) {
+            //  already unregistered
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+        //  unless the queue has been registered again under another name
+        if (queue.name == name) {
+            queue.name(null);
+        }
+    }
+
+    public ObjectName objectName() {
+        return objectName;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    //  read without synchronization, so the values may be slightly stale
+    @Override
+    public int getSize() {
+        return queue.size();
+    }
+
+    @Override
+    public int getCapacity() {
+        return queue.capacity();
+    }
+
+    @Override
+    public int getGrowthCount() {
+        return queue.growthCount();
+    }
+
+    @Override
+    public long getRetainedBytes() {
+        return queue.retainedBytes();
+    }
+
+    @Override
+    public long getOfferCount() {
+        return count(HeapMetrics.Operation.OFFER);
+    }
+
+    @Override
+    public long getPollCount() {
+        return count(HeapMetrics.Operation.POLL);
+    }
+
+    @Override
+    public double getOfferRate() {
+        return rate(HeapMetrics.Operation.OFFER);
+    }
+
+    @Override
+    public double getPollRate() {
+        return rate(HeapMetrics.Operation.POLL);
+    }
+
+    private long count(HeapMetrics.Operation operation) {
+        HeapMetrics metrics = queue.metrics();
+        return metrics == null ? -1 : metrics.count(operation);
+    }
+
+    //  operations per second since the previous read of the same rate
+    private synchronized double rate(HeapMetrics.Operation operation) {
+        HeapMetrics metrics = queue.metrics();
+        if (metrics == null) {
+            return Double.NaN;
+        }
+        int i = operation.ordinal();
+        long count = metrics.count(operation);
+        long now = System.nanoTime();
+        double rate = (count - lastCounts[i]) * 1e9 / Math.max(now - lastNanos[i], 1);
+        lastCounts[i] = count;
+        lastNanos[i] = now;
+        return rate;
+    }
+}
@@ -0,0 +1,279 @@
+package com.example.heap.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+
+//  a snapshot is a 12 byte little endian header (magic, version, type, size) followed
+//  by the backing array in heap order, so restoring it is one sequential read and the
+//  heap is adopted as is; object elements are written by an ElementCodec
+//
+//  a snapshot is written to a sibling file and moved over the target once it is complete,
+//  so a failed write leaves the previous snapshot in place
+public final class HeapSnapshot {
+
+    private static final int MAGIC = 0x53515048;
+
+    private static final short VERSION = 1;
+
+    private static final short OBJECT = 0;
+
+    private static final short INT = 1;
+
+    private static final short LONG = 2;
+
+    private static final short DOUBLE = 3;
+
+    private static final int HEADER_BYTES = 12;
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    //  DurableHeapQueue deletes files left behind with this suffix
+    static final String TEMPORARY = ".tmp";
+
+    //  Windows cannot open a directory as a channel
+    private static final boolean DIRECTORY_SYNC = !System.getProperty("os.name").startsWith("Windows");
+
+    private interface Writer {
+        void write(FileChannel channel) throws IOException;
+    }
+
+    private HeapSnapshot() {
+    }
+
+    public static <E> void write(ArrayHeapQueue<E> queue, ElementCodec<? super E> codec, Path file) throws IOException {
+        Object[] data = queue.array();
+        int size = queue.size();
+        write(file, channel -> {
+            flush(channel, header(ByteBuffer.allocate(HEADER_BYTES), OBJECT, size));
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+            for (int i = 0; i < size; i++) {
+                @SuppressWarnings("unchecked")
+                E element = (E) data[i];
+                codec.encode(element, out);
+            }
+            out.flush();
+        });
+    }
+
+    public static <E> ArrayHeapQueue<E> readArrayHeapQueue(Path file, Comparator<? super E> comparator,
+                                                           ElementCodec<? extends E> codec) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int size = readHeader(channel, OBJECT);
+            DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE));
+            //  element lengths are unknown, so the array starts at the file length and
+            //  only grows past it for elements that encode to nothing
+            Object[] data = new Object[(int) Math.min(size, channel.size() - HEADER_BYTES)];
+            for (int i = 0; i < size; i++) {
+                if (i == data.length) {
+                    data = Arrays.copyOf(data, (int) Math.min(size, 2L * i + 1));
+                }
+                data[i] = codec.decode(in);
+            }
+            return new ArrayHeapQueue<>(comparator, data, size);
+        }
+    }
+
+    public static void write(IntArrayHeapQueue queue, Path file) throws IOException {
+        int[] data = queue.array();
+        int size = queue.size();
+        write(file, channel -> {
+            ByteBuffer buffer = header(buffer(), INT, size);
+            int i = 0;
+            do {
+                int n = Math.min(size - i, buffer.remaining() / Integer.BYTES);
+                buffer.asIntBuffer().put(data, i, n);
+                buffer.position(buffer.position() + n * Integer.BYTES);
+                flush(channel, buffer);
+                i += n;
+            } while (i < size);
+        });
+    }
+
+    public static IntArrayHeapQueue readIntHeapQueue(Path file, IntComparator comparator) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int size = readHeader(channel, INT);
+            checkLength(channel, size, Integer.BYTES);
+            ByteBuffer buffer = buffer();
+            int[] data = new int[size];
+            for (int i = 0; i < size; ) {
+                int n = Math.min(size - i, BUFFER_SIZE / Integer.BYTES);
+                fill(channel, buffer, n * Integer.BYTES);
+                buffer.asIntBuffer().get(data, i, n);
+                i += n;
+            }
+            return new IntArrayHeapQueue(comparator, data, size);
+        }
+    }
+
+    public static void write(LongArrayHeapQueue queue, Path file) throws IOException {
+        long[] data = queue.array();
+        int size = queue.size();
+        write(file, channel -> {
+            ByteBuffer buffer = header(buffer(), LONG, size);
+            int i = 0;
+            do {
+                int n = Math.min(size - i, buffer.remaining() / Long.BYTES);
+                buffer.asLongBuffer().put(data, i, n);
+                buffer.position(buffer.position() + n * Long.BYTES);
+                flush(channel, buffer);
+                i += n;
+            } while (i < size);
+        });
+    }
+
+    public static LongArrayHeapQueue readLongHeapQueue(Path file, LongComparator comparator) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int size = readHeader(channel, LONG);
+            checkLength(channel, size, Long.BYTES);
+            ByteBuffer buffer = buffer();
+            long[] data = new long[size];
+            for (int i = 0; i < size; ) {
+                int n = Math.min(size - i, BUFFER_SIZE / Long.BYTES);
+                fill(channel, buffer, n * Long.BYTES);
+                buffer.asLongBuffer().get(data, i, n);
+                i += n;
+            }
+            return new LongArrayHeapQueue(comparator, data, size);
+        }
+    }
+
+    public static void write(DoubleArrayHeapQueue queue, Path file) throws IOException {
+        double[] data = queue.array();
+        int size = queue.size();
+        write(file, channel -> {
+            ByteBuffer buffer = header(buffer(), DOUBLE, size);
+            int i = 0;
+            do {
+                int n = Math.min(size - i, buffer.remaining() / Double.BYTES);
+                buffer.asDoubleBuffer().put(data, i, n);
+                buffer.position(buffer.position() + n * Double.BYTES);
+                flush(channel, buffer);
+                i += n;
+            } while (i < size);
+        });
+    }
+
+    public static DoubleArrayHeapQueue readDoubleHeapQueue(Path file, DoubleComparator comparator) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int size = readHeader(channel, DOUBLE);
+            checkLength(channel, size, Double.BYTES);
+            ByteBuffer buffer = buffer();
+            double[] data = new double[size];
+            for (int i = 0; i < size; ) {
+                int n = Math.min(size - i, BUFFER_SIZE / Double.BYTES);
+                fill(channel, buffer, n * Double.BYTES);
+                buffer.asDoubleBuffer().get(data, i, n);
+                i += n;
+            }
+            return new DoubleArrayHeapQueue(comparator, data, size);
+        }
+    }
+
+    private static void write(Path file, Writer writer) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + TEMPORARY);
+        try {
+            try (FileChannel channel = FileChannel.open(temporary,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                writer.write(channel);
+                channel.force(false);
+            }
+            Files.move(temporary, file,
+                    StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        forceDirectory(file.toAbsolutePath().getParent());
+    }
+
+    //  a rename or a new file survives a power loss only once its directory is forced
+    static void forceDirectory(Path directory) throws IOException {
+        if (DIRECTORY_SYNC) {
+            try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+                channel.force(true);
+            }
+        }
+    }
+
+    private static ByteBuffer buffer() {
+        return ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static ByteBuffer header(ByteBuffer buffer, short type, int size) {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putShort(type);
+        buffer.putInt(size);
+        return buffer;
+    }
+
+    private static int readHeader(FileChannel channel, short type) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        fill(channel, buffer, HEADER_BYTES);
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("not a heap snapshot");
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("unsupported snapshot version: " + version);
+        }
+        short actual = buffer.getShort();
+        if (actual != type) {
+            throw new IOException("snapshot type should be " + type + ": " + actual);
+        }
+        int size = buffer.getInt();
+        if (size < 0) {
+            throw new IOException("corrupted snapshot size: " + size);
+        }
+        return size;
+    }
+
+    //  checked before the array is allocated, so a corrupted size cannot exhaust the heap
+    private static void checkLength(FileChannel channel, int size, int elementBytes) throws IOException {
+        long expected = HEADER_BYTES + (long) size * elementBytes;
+        long length = channel.size();
+        if (length != expected) {
+            throw new IOException("snapshot of " + size + " elements should be " + expected
+                    + " bytes long: " + length);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static void fill(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        buffer.clear();
+        buffer.limit(bytes);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("truncated heap snapshot");
+            }
+        }
+        buffer.flip();
+    }
+}
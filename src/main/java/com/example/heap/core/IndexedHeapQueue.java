@@ -0,0 +1,155 @@
+package com.example.heap.core;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+public class IndexedHeapQueue<E> implements HeapQueue<E> {
+
+    private final HandleHeapQueue<E> queue;
+
+    private final Map<E, HandleHeapQueue.Node<E>> nodes;
+
+    public IndexedHeapQueue(Comparator<? super E> comparator) {
+        this.queue = new HandleHeapQueue<>(comparator);
+        this.nodes = new HashMap<>();
+    }
+
+    public IndexedHeapQueue(Comparator<? super E> comparator, int initialCapacity) {
+        this.queue = new HandleHeapQueue<>(comparator, initialCapacity);
+        this.nodes = new HashMap<>(Math.max((int) (initialCapacity / .75f) + 1, 16));
+    }
+
+    public void ensureCapacity(int minCapacity) {
+        queue.ensureCapacity(minCapacity);
+    }
+
+    public void trimToSize() {
+        queue.trimToSize();
+    }
+
+    @Override
+    public Comparator<? super E> comparator() {
+        return queue.comparator();
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    @Override
+    public boolean contains(E e) {
+        return nodes.containsKey(e);
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (nodes.containsKey(e)) {
+            return false;
+        }
+        nodes.put(e, queue.insertNode(e));
+        return true;
+    }
+
+    @Override
+    public E peek() {
+        return queue.peek();
+    }
+
+    @Override
+    public E poll() {
+        if (queue.isEmpty()) {
+            return null;
+        }
+        return remove(0);
+    }
+
+    @Override
+    public int indexOf(E e) {
+        HandleHeapQueue.Node<E> node = nodes.get(e);
+        return node == null ? -1 : node.index;
+    }
+
+    @Override
+    public E get(int index) {
+        return queue.get(index);
+    }
+
+    @Override
+    public E remove(int index) {
+        E removed = queue.remove(index);
+        nodes.remove(removed);
+        return removed;
+    }
+
+    public boolean remove(E e) {
+        HandleHeapQueue.Node<E> node = nodes.remove(e);
+        return node != null && node.remove();
+    }
+
+    public boolean decreaseKey(E e) {
+        return update(e);
+    }
+
+    public boolean increaseKey(E e) {
+        return update(e);
+    }
+
+    //  the new element is equal to the queued one but may compare differently
+    public boolean update(E e) {
+        HandleHeapQueue.Node<E> node = nodes.get(e);
+        if (node == null) {
+            return false;
+        }
+        node.update(e);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        queue.clear();
+        nodes.clear();
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        return queue.removeIf(e -> {
+            if (filter.test(e)) {
+                nodes.remove(e);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        queue.forEach(action);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IndexedHeapQueue<?> that = (IndexedHeapQueue<?>) o;
+        return queue.equals(that.queue);
+    }
+
+    @Override
+    public int hashCode() {
+        return queue.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return queue.toString();
+    }
+}
@@ -0,0 +1,361 @@
+package com.example.heap.core;
+
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+public class IntArrayHeapQueue implements IntHeapQueue, Cloneable {
+
+    private static final int[] EMPTY_ARRAY = {};
+
+    private int[] data;
+
+    private int size;
+
+    private final IntComparator comparator;
+
+    public IntArrayHeapQueue() {
+        this(IntComparator.naturalOrder());
+    }
+
+    public IntArrayHeapQueue(IntComparator comparator) {
+        this.data = EMPTY_ARRAY;
+        this.comparator = comparator;
+    }
+
+    public IntArrayHeapQueue(IntComparator comparator, int initialCapacity) {
+        if (initialCapacity == 0) {
+            this.data = EMPTY_ARRAY;
+        } else {
+            this.data = new int[initialCapacity];
+        }
+        this.comparator = comparator;
+    }
+
+    public IntArrayHeapQueue(IntComparator comparator, int[] array) {
+        this.data = array.length == 0 ? EMPTY_ARRAY : array.clone();
+        this.size = array.length;
+        this.comparator = comparator;
+        heapify();
+    }
+
+    //  adopts an array that is already in heap order, used to restore snapshots
+    IntArrayHeapQueue(IntComparator comparator, int[] data, int size) {
+        this.data = data.length == 0 ? EMPTY_ARRAY : data;
+        this.size = size;
+        this.comparator = comparator;
+    }
+
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity >= data.length) {
+            int newCapacity = minCapacity < 64
+                    ? (minCapacity << 1)
+                    : (minCapacity + (minCapacity >>> 1));
+            resize(newCapacity);
+        }
+    }
+
+    public void trimToSize() {
+        int size = this.size;
+        if (size == 0) {
+            data = EMPTY_ARRAY;
+        } else if (size != data.length) {
+            resize(size);
+        }
+    }
+
+    private void resize(int length) {
+        int[] array = new int[length];
+        System.arraycopy(data, 0, array, 0, size);
+        data = array;
+    }
+
+    int[] array() {
+        return data;
+    }
+
+    private void siftUp(int index, int e) {
+        int[] data = this.data;
+        while (index > 0) {
+            int parentIndex = HeapQueue.parent(index);
+            int parent = data[parentIndex];
+            int cmp = comparator.compare(e, parent);
+            if (cmp >= 0) {
+                break;
+            }
+            data[index] = parent;
+            index = parentIndex;
+        }
+        data[index] = e;
+    }
+
+    private void siftDown(int index, int e) {
+        int[] data = this.data;
+        int size = this.size;
+        int mid = size >>> 1;
+        while (index < mid) {
+            int leftIndex = HeapQueue.left(index);
+            int left = data[leftIndex];
+            int minIndex = leftIndex;
+            int min = left;
+            int rightIndex = HeapQueue.right(index);
+            if (rightIndex < size) {
+                int right = data[rightIndex];
+                int cmp = comparator.compare(left, right);
+                if (cmp > 0) {
+                    minIndex = rightIndex;
+                    min = right;
+                }
+            }
+            if (comparator.compare(e, min) <= 0) {
+                break;
+            }
+            data[index] = min;
+            index = minIndex;
+        }
+        data[index] = e;
+    }
+
+    private void heapify() {
+        int[] data = this.data;
+        int i = (size >>> 1) - 1;
+        while (i >= 0) {
+            siftDown(i, data[i]);
+            i--;
+        }
+    }
+
+    private void rebuildTail(int start) {
+        int size = this.size;
+        int tailLength = size - start;
+        //  sifting the tail in costs about tailLength * log2(start) comparisons,
+        //  rebuilding the whole heap about 2 * size, both counted in long
+        boolean rebuild;
+        if (start < tailLength) {
+            rebuild = true;
+        } else if (size <= 2048) {
+            rebuild = 2L * size < (long) tailLength * (31 - Integer.numberOfLeadingZeros(start));
+        } else {
+            rebuild = 2L * size < tailLength * 11L;
+        }
+        if (rebuild) {
+            heapify();
+        } else {
+            int[] data = this.data;
+            for (int i = start; i < size; i++) {
+                siftUp(i, data[i]);
+            }
+        }
+    }
+
+    @Override
+    public IntComparator comparator() {
+        return comparator;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean contains(int e) {
+        return indexOf(e) >= 0;
+    }
+
+    @Override
+    public boolean offer(int e) {
+        int lastIndex = this.size;
+        int newSize = lastIndex + 1;
+        ensureCapacity(newSize);
+        siftUp(lastIndex, e);
+        this.size = newSize;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(int[] array) {
+        int length = array.length;
+        if (length == 0) {
+            return false;
+        }
+        int start = this.size;
+        int newSize = start + length;
+        if (newSize < 0) {
+            throw new OutOfMemoryError("Required array size too large");
+        }
+        if (start == 0) {
+            if (newSize > data.length) {
+                data = new int[newSize];
+            }
+        } else {
+            ensureCapacity(newSize);
+        }
+        System.arraycopy(array, 0, data, start, length);
+        this.size = newSize;
+        rebuildTail(start);
+        return true;
+    }
+
+    @Override
+    public int peek() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return data[0];
+    }
+
+    @Override
+    public int poll() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        int[] data = this.data;
+        int first = data[0];
+        int lastIndex = --size;
+        if (lastIndex > 0) {
+            siftDown(0, data[lastIndex]);
+        }
+        return first;
+    }
+
+    @Override
+    public int indexOf(int e) {
+        int[] data = this.data;
+        int size = this.size;
+        for (int i = 0; i < size; i++) {
+            if (e == data[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return data[index];
+    }
+
+    @Override
+    public int remove(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int[] data = this.data;
+        int lastIndex = --size;
+        int removed = data[index];
+        if (lastIndex != index) {
+            int last = data[lastIndex];
+            siftDown(index, last);
+            if (data[index] == last) {
+                siftUp(index, last);
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        this.size = 0;
+    }
+
+    @Override
+    public boolean removeIf(IntPredicate filter) {
+        int[] data = this.data;
+        int size = this.size;
+        int dest = 0;
+        for (int i = 0; i < size; i++) {
+            int element = data[i];
+            if (!filter.test(element)) {
+                data[dest++] = element;
+            }
+        }
+        if (size == dest) {
+            return false;
+        }
+        this.size = dest;
+        heapify();
+        return true;
+    }
+
+    @Override
+    public void forEach(IntConsumer action) {
+        int[] data = this.data;
+        int size = this.size;
+        for (int i = 0; i < size; i++) {
+            action.accept(data[i]);
+        }
+    }
+
+    @Override
+    public IntArrayHeapQueue clone() {
+        IntArrayHeapQueue clone;
+        try {
+            clone = (IntArrayHeapQueue) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+        int[] data = this.data;
+        int[] array = new int[data.length];
+        System.arraycopy(data, 0, array, 0, size);
+        clone.data = array;
+        return clone;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IntArrayHeapQueue that = (IntArrayHeapQueue) o;
+        int size = this.size;
+        if (size != that.size) {
+            return false;
+        }
+        int[] d1 = this.data;
+        int[] d2 = that.data;
+        for (int i = 0; i < size; i++) {
+            int e1 = d1[i];
+            int e2 = d2[i];
+            if (!(e1 == e2)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int[] data = this.data;
+        int size = this.size;
+        int hash = size == 0 ? 31 : size;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + Integer.hashCode(data[i]);
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        int size = this.size;
+        if (size == 0) {
+            return "[]";
+        }
+        int[] data = this.data;
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        for (int i = 0; i < size; i++) {
+            sb.append(data[i]).append(',').append(' ');
+        }
+        sb.setLength(sb.length() - 2);
+        sb.append(']');
+        return sb.toString();
+    }
+}
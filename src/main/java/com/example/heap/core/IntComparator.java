@@ -0,0 +1,19 @@
+package com.example.heap.core;
+
+@FunctionalInterface
+public interface IntComparator {
+
+    int compare(int a, int b);
+
+    default IntComparator reversed() {
+        return (a, b) -> compare(b, a);
+    }
+
+    static IntComparator naturalOrder() {
+        return Integer::compare;
+    }
+
+    static IntComparator reverseOrder() {
+        return (a, b) -> Integer.compare(b, a);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.heap.core;
+
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+public interface IntHeapQueue {
+
+    IntComparator comparator();
+
+    int size();
+
+    boolean isEmpty();
+
+    boolean contains(int e);
+
+    boolean offer(int e);
+
+    default boolean addAll(int[] array) {
+        boolean modified = false;
+        for (int e : array) {
+            modified |= offer(e);
+        }
+        return modified;
+    }
+
+    int peek();
+
+    int poll();
+
+    int indexOf(int e);
+
+    int get(int index);
+
+    int remove(int index);
+
+    void clear();
+
+    boolean removeIf(IntPredicate filter);
+
+    void forEach(IntConsumer action);
+}
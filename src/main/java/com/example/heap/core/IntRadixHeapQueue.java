@@ -0,0 +1,115 @@
+package com.example.heap.core;
+
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+//  a LongRadixHeapQueue of the widened keys: widening keeps the order, and a key that
+//  only differs from the last minimum in its low 32 bits stays in the low 33 buckets;
+//  keys less than the last peeked or polled key are rejected, clear() resets that floor
+public class IntRadixHeapQueue implements IntHeapQueue, Cloneable {
+
+    private LongRadixHeapQueue queue;
+
+    public IntRadixHeapQueue() {
+        this.queue = new LongRadixHeapQueue();
+    }
+
+    public void trimToSize() {
+        queue.trimToSize();
+    }
+
+    @Override
+    public IntComparator comparator() {
+        return IntComparator.naturalOrder();
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    @Override
+    public boolean contains(int e) {
+        return queue.contains(e);
+    }
+
+    @Override
+    public boolean offer(int e) {
+        return queue.offer(e);
+    }
+
+    @Override
+    public int peek() {
+        return (int) queue.peek();
+    }
+
+    @Override
+    public int poll() {
+        return (int) queue.poll();
+    }
+
+    @Override
+    public int indexOf(int e) {
+        return queue.indexOf(e);
+    }
+
+    @Override
+    public int get(int index) {
+        return (int) queue.get(index);
+    }
+
+    @Override
+    public int remove(int index) {
+        return (int) queue.remove(index);
+    }
+
+    @Override
+    public void clear() {
+        queue.clear();
+    }
+
+    @Override
+    public boolean removeIf(IntPredicate filter) {
+        return queue.removeIf(e -> filter.test((int) e));
+    }
+
+    @Override
+    public void forEach(IntConsumer action) {
+        queue.forEach(e -> action.accept((int) e));
+    }
+
+    @Override
+    public IntRadixHeapQueue clone() {
+        IntRadixHeapQueue clone;
+        try {
+            clone = (IntRadixHeapQueue) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+        clone.queue = queue.clone();
+        return clone;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IntRadixHeapQueue that = (IntRadixHeapQueue) o;
+        return queue.equals(that.queue);
+    }
+
+    @Override
+    public int hashCode() {
+        return queue.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return queue.toString();
+    }
+}
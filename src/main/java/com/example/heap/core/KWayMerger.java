@@ -0,0 +1,142 @@
+package com.example.heap.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+//  merges sorted iterators through a loser tree: every element costs one comparison per
+//  level on a single leaf-to-root path and only source numbers move, instead of a poll
+//  followed by an offer; a source is only pulled when the next element is asked for,
+//  and equal elements come out in source order
+public class KWayMerger<E> extends LoserTree implements Iterator<E> {
+
+    private final Comparator<? super E> comparator;
+
+    private final Iterator<? extends E>[] sources;
+
+    private final Object[] heads;
+
+    public KWayMerger(Comparator<? super E> comparator, Collection<? extends Iterator<? extends E>> sources) {
+        super(sources.size());
+        @SuppressWarnings("unchecked")
+        Iterator<? extends E>[] array = (Iterator<? extends E>[]) sources.toArray(new Iterator<?>[0]);
+        this.comparator = comparator;
+        this.sources = array;
+        this.heads = new Object[array.length];
+    }
+
+    //  copies the sources element by element, the varargs array itself never escapes
+    @SafeVarargs
+    public static <E> KWayMerger<E> of(Comparator<? super E> comparator, Iterator<? extends E>... sources) {
+        List<Iterator<? extends E>> list = new ArrayList<>(sources.length);
+        for (Iterator<? extends E> source : sources) {
+            list.add(source);
+        }
+        return new KWayMerger<>(comparator, list);
+    }
+
+    @Override
+    boolean pull(int source) {
+        Iterator<? extends E> iterator = sources[source];
+        if (iterator.hasNext()) {
+            heads[source] = iterator.next();
+            return true;
+        }
+        sources[source] = null;
+        heads[source] = null;
+        return false;
+    }
+
+    @Override
+    int compare(int a, int b) {
+        @SuppressWarnings("unchecked")
+        E head = (E) heads[a];
+        @SuppressWarnings("unchecked")
+        E other = (E) heads[b];
+        return comparator.compare(head, other);
+    }
+
+    @Override
+    public E next() {
+        @SuppressWarnings("unchecked")
+        E head = (E) heads[nextSource()];
+        return head;
+    }
+
+    public static class OfInt extends LoserTree implements PrimitiveIterator.OfInt {
+
+        private final IntComparator comparator;
+
+        private final PrimitiveIterator.OfInt[] sources;
+
+        private final int[] heads;
+
+        public OfInt(IntComparator comparator, Collection<? extends PrimitiveIterator.OfInt> sources) {
+            super(sources.size());
+            this.comparator = comparator;
+            this.sources = sources.toArray(new PrimitiveIterator.OfInt[0]);
+            this.heads = new int[this.sources.length];
+        }
+
+        @Override
+        boolean pull(int source) {
+            PrimitiveIterator.OfInt iterator = sources[source];
+            if (iterator.hasNext()) {
+                heads[source] = iterator.nextInt();
+                return true;
+            }
+            sources[source] = null;
+            return false;
+        }
+
+        @Override
+        int compare(int a, int b) {
+            return comparator.compare(heads[a], heads[b]);
+        }
+
+        @Override
+        public int nextInt() {
+            return heads[nextSource()];
+        }
+    }
+
+    public static class OfLong extends LoserTree implements PrimitiveIterator.OfLong {
+
+        private final LongComparator comparator;
+
+        private final PrimitiveIterator.OfLong[] sources;
+
+        private final long[] heads;
+
+        public OfLong(LongComparator comparator, Collection<? extends PrimitiveIterator.OfLong> sources) {
+            super(sources.size());
+            this.comparator = comparator;
+            this.sources = sources.toArray(new PrimitiveIterator.OfLong[0]);
+            this.heads = new long[this.sources.length];
+        }
+
+        @Override
+        boolean pull(int source) {
+            PrimitiveIterator.OfLong iterator = sources[source];
+            if (iterator.hasNext()) {
+                heads[source] = iterator.nextLong();
+                return true;
+            }
+            sources[source] = null;
+            return false;
+        }
+
+        @Override
+        int compare(int a, int b) {
+            return comparator.compare(heads[a], heads[b]);
+        }
+
+        @Override
+        public long nextLong() {
+            return heads[nextSource()];
+        }
+    }
+}
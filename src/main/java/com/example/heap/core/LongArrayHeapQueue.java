@@ -0,0 +1,361 @@
+package com.example.heap.core;
+
+import java.util.NoSuchElementException;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+public class LongArrayHeapQueue implements LongHeapQueue, Cloneable {
+
+    private static final long[] EMPTY_ARRAY = {};
+
+    private long[] data;
+
+    private int size;
+
+    private final LongComparator comparator;
+
+    public LongArrayHeapQueue() {
+        this(LongComparator.naturalOrder());
+    }
+
+    public LongArrayHeapQueue(LongComparator comparator) {
+        this.data = EMPTY_ARRAY;
+        this.comparator = comparator;
+    }
+
+    public LongArrayHeapQueue(LongComparator comparator, int initialCapacity) {
+        if (initialCapacity == 0) {
+            this.data = EMPTY_ARRAY;
+        } else {
+            this.data = new long[initialCapacity];
+        }
+        this.comparator = comparator;
+    }
+
+    public LongArrayHeapQueue(LongComparator comparator, long[] array) {
+        this.data = array.length == 0 ? EMPTY_ARRAY : array.clone();
+        this.size = array.length;
+        this.comparator = comparator;
+        heapify();
+    }
+
+    //  adopts an array that is already in heap order, used to restore snapshots
+    LongArrayHeapQueue(LongComparator comparator, long[] data, int size) {
+        this.data = data.length == 0 ? EMPTY_ARRAY : data;
+        this.size = size;
+        this.comparator = comparator;
+    }
+
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity >= data.length) {
+            int newCapacity = minCapacity < 64
+                    ? (minCapacity << 1)
+                    : (minCapacity + (minCapacity >>> 1));
+            resize(newCapacity);
+        }
+    }
+
+    public void trimToSize() {
+        int size = this.size;
+        if (size == 0) {
+            data = EMPTY_ARRAY;
+        } else if (size != data.length) {
+            resize(size);
+        }
+    }
+
+    private void resize(int length) {
+        long[] array = new long[length];
+        System.arraycopy(data, 0, array, 0, size);
+        data = array;
+    }
+
+    long[] array() {
+        return data;
+    }
+
+    private void siftUp(int index, long e) {
+        long[] data = this.data;
+        while (index > 0) {
+            int parentIndex = HeapQueue.parent(index);
+            long parent = data[parentIndex];
+            int cmp = comparator.compare(e, parent);
+            if (cmp >= 0) {
+                break;
+            }
+            data[index] = parent;
+            index = parentIndex;
+        }
+        data[index] = e;
+    }
+
+    private void siftDown(int index, long e) {
+        long[] data = this.data;
+        int size = this.size;
+        int mid = size >>> 1;
+        while (index < mid) {
+            int leftIndex = HeapQueue.left(index);
+            long left = data[leftIndex];
+            int minIndex = leftIndex;
+            long min = left;
+            int rightIndex = HeapQueue.right(index);
+            if (rightIndex < size) {
+                long right = data[rightIndex];
+                int cmp = comparator.compare(left, right);
+                if (cmp > 0) {
+                    minIndex = rightIndex;
+                    min = right;
+                }
+            }
+            if (comparator.compare(e, min) <= 0) {
+                break;
+            }
+            data[index] = min;
+            index = minIndex;
+        }
+        data[index] = e;
+    }
+
+    private void heapify() {
+        long[] data = this.data;
+        int i = (size >>> 1) - 1;
+        while (i >= 0) {
+            siftDown(i, data[i]);
+            i--;
+        }
+    }
+
+    private void rebuildTail(int start) {
+        int size = this.size;
+        int tailLength = size - start;
+        //  sifting the tail in costs about tailLength * log2(start) comparisons,
+        //  rebuilding the whole heap about 2 * size, both counted in long
+        boolean rebuild;
+        if (start < tailLength) {
+            rebuild = true;
+        } else if (size <= 2048) {
+            rebuild = 2L * size < (long) tailLength * (31 - Integer.numberOfLeadingZeros(start));
+        } else {
+            rebuild = 2L * size < tailLength * 11L;
+        }
+        if (rebuild) {
+            heapify();
+        } else {
+            long[] data = this.data;
+            for (int i = start; i < size; i++) {
+                siftUp(i, data[i]);
+            }
+        }
+    }
+
+    @Override
+    public LongComparator comparator() {
+        return comparator;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean contains(long e) {
+        return indexOf(e) >= 0;
+    }
+
+    @Override
+    public boolean offer(long e) {
+        int lastIndex = this.size;
+        int newSize = lastIndex + 1;
+        ensureCapacity(newSize);
+        siftUp(lastIndex, e);
+        this.size = newSize;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(long[] array) {
+        int length = array.length;
+        if (length == 0) {
+            return false;
+        }
+        int start = this.size;
+        int newSize = start + length;
+        if (newSize < 0) {
+            throw new OutOfMemoryError("Required array size too large");
+        }
+        if (start == 0) {
+            if (newSize > data.length) {
+                data = new long[newSize];
+            }
+        } else {
+            ensureCapacity(newSize);
+        }
+        System.arraycopy(array, 0, data, start, length);
+        this.size = newSize;
+        rebuildTail(start);
+        return true;
+    }
+
+    @Override
+    public long peek() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return data[0];
+    }
+
+    @Override
+    public long poll() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        long[] data = this.data;
+        long first = data[0];
+        int lastIndex = --size;
+        if (lastIndex > 0) {
+            siftDown(0, data[lastIndex]);
+        }
+        return first;
+    }
+
+    @Override
+    public int indexOf(long e) {
+        long[] data = this.data;
+        int size = this.size;
+        for (int i = 0; i < size; i++) {
+            if (e == data[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public long get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return data[index];
+    }
+
+    @Override
+    public long remove(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        long[] data = this.data;
+        int lastIndex = --size;
+        long removed = data[index];
+        if (lastIndex != index) {
+            long last = data[lastIndex];
+            siftDown(index, last);
+            if (data[index] == last) {
+                siftUp(index, last);
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        this.size = 0;
+    }
+
+    @Override
+    public boolean removeIf(LongPredicate filter) {
+        long[] data = this.data;
+        int size = this.size;
+        int dest = 0;
+        for (int i = 0; i < size; i++) {
+            long element = data[i];
+            if (!filter.test(element)) {
+                data[dest++] = element;
+            }
+        }
+        if (size == dest) {
+            return false;
+        }
+        this.size = dest;
+        heapify();
+        return true;
+    }
+
+    @Override
+    public void forEach(LongConsumer action) {
+        long[] data = this.data;
+        int size = this.size;
+        for (int i = 0; i < size; i++) {
+            action.accept(data[i]);
+        }
+    }
+
+    @Override
+    public LongArrayHeapQueue clone() {
+        LongArrayHeapQueue clone;
+        try {
+            clone = (LongArrayHeapQueue) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+        long[] data = this.data;
+        long[] array = new long[data.length];
+        System.arraycopy(data, 0, array, 0, size);
+        clone.data = array;
+        return clone;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LongArrayHeapQueue that = (LongArrayHeapQueue) o;
+        int size = this.size;
+        if (size != that.size) {
+            return false;
+        }
+        long[] d1 = this.data;
+        long[] d2 = that.data;
+        for (int i = 0; i < size; i++) {
+            long e1 = d1[i];
+            long e2 = d2[i];
+            if (!(e1 == e2)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        long[] data = this.data;
+        int size = this.size;
+        int hash = size == 0 ? 31 : size;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + Long.hashCode(data[i]);
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        int size = this.size;
+        if (size == 0) {
+            return "[]";
+        }
+        long[] data = this.data;
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        for (int i = 0; i < size; i++) {
+            sb.append(data[i]).append(',').append(' ');
+        }
+        sb.setLength(sb.length() - 2);
+        sb.append(']');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.heap.core;
+
+@FunctionalInterface
+public interface LongComparator {
+
+    int compare(long a, long b);
+
+    default LongComparator reversed() {
+        return (a, b) -> compare(b, a);
+    }
+
+    static LongComparator naturalOrder() {
+        return Long::compare;
+    }
+
+    static LongComparator reverseOrder() {
+        return (a, b) -> Long.compare(b, a);
+    }
+}
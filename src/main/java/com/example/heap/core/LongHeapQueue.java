@@ -0,0 +1,41 @@
+package com.example.heap.core;
+
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+public interface LongHeapQueue {
+
+    LongComparator comparator();
+
+    int size();
+
+    boolean isEmpty();
+
+    boolean contains(long e);
+
+    boolean offer(long e);
+
+    default boolean addAll(long[] array) {
+        boolean modified = false;
+        for (long e : array) {
+            modified |= offer(e);
+        }
+        return modified;
+    }
+
+    long peek();
+
+    long poll();
+
+    int indexOf(long e);
+
+    long get(int index);
+
+    long remove(int index);
+
+    void clear();
+
+    boolean removeIf(LongPredicate filter);
+
+    void forEach(LongConsumer action);
+}
@@ -0,0 +1,329 @@
+package com.example.heap.core;
+
+import java.util.NoSuchElementException;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+//  keys are stored as unsigned values (key ^ MIN_VALUE) so that the bucket of a key is
+//  the position of the highest bit in which it differs from the last extracted minimum
+//  and bucket 0 holds the keys equal to it; keys less than the last peeked or polled key
+//  are rejected, clear() resets that floor
+public class LongRadixHeapQueue implements LongHeapQueue, Cloneable {
+
+    private static final int BUCKETS = 64 + 1;
+
+    private static final long[] EMPTY_ARRAY = {};
+
+    private long[][] buckets;
+
+    private int[] sizes;
+
+    private int size;
+
+    private long last;
+
+    public LongRadixHeapQueue() {
+        long[][] buckets = new long[BUCKETS][];
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = EMPTY_ARRAY;
+        }
+        this.buckets = buckets;
+        this.sizes = new int[BUCKETS];
+    }
+
+    private static long encode(long e) {
+        return e ^ Long.MIN_VALUE;
+    }
+
+    private static long decode(long x) {
+        return x ^ Long.MIN_VALUE;
+    }
+
+    private static int bucket(long x, long last) {
+        return x == last ? 0 : 64 - Long.numberOfLeadingZeros(x ^ last);
+    }
+
+    public void trimToSize() {
+        long[][] buckets = this.buckets;
+        int[] sizes = this.sizes;
+        for (int i = 0; i < BUCKETS; i++) {
+            int size = sizes[i];
+            if (size != buckets[i].length) {
+                buckets[i] = size == 0 ? EMPTY_ARRAY : resize(buckets[i], size, size);
+            }
+        }
+    }
+
+    private static long[] resize(long[] bucket, int size, int length) {
+        long[] array = new long[length];
+        System.arraycopy(bucket, 0, array, 0, size);
+        return array;
+    }
+
+    private void push(int index, long x) {
+        long[] bucket = buckets[index];
+        int size = sizes[index];
+        if (size == bucket.length) {
+            int minCapacity = size + 1;
+            int newCapacity = minCapacity < 64
+                    ? (minCapacity << 1)
+                    : (minCapacity + (minCapacity >>> 1));
+            bucket = resize(bucket, size, newCapacity);
+            buckets[index] = bucket;
+        }
+        bucket[size] = x;
+        sizes[index] = size + 1;
+    }
+
+    //  moves the minimum into bucket 0 by redistributing the lowest non-empty bucket
+    //  around it, every other key of that bucket lands in a lower one
+    private void pull() {
+        int[] sizes = this.sizes;
+        if (sizes[0] > 0) {
+            return;
+        }
+        int index = 1;
+        while (sizes[index] == 0) {
+            index++;
+        }
+        long[] bucket = buckets[index];
+        int size = sizes[index];
+        long min = bucket[0];
+        for (int i = 1; i < size; i++) {
+            long x = bucket[i];
+            if (Long.compareUnsigned(x, min) < 0) {
+                min = x;
+            }
+        }
+        last = min;
+        sizes[index] = 0;
+        for (int i = 0; i < size; i++) {
+            long x = bucket[i];
+            push(bucket(x, min), x);
+        }
+    }
+
+    @Override
+    public LongComparator comparator() {
+        return LongComparator.naturalOrder();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean contains(long e) {
+        return indexOf(e) >= 0;
+    }
+
+    @Override
+    public boolean offer(long e) {
+        long x = encode(e);
+        long last = this.last;
+        if (Long.compareUnsigned(x, last) < 0) {
+            throw new IllegalArgumentException("e should not be less than " + decode(last) + ": " + e);
+        }
+        push(bucket(x, last), x);
+        size++;
+        return true;
+    }
+
+    @Override
+    public long peek() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        pull();
+        return decode(last);
+    }
+
+    @Override
+    public long poll() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        pull();
+        sizes[0]--;
+        size--;
+        return decode(last);
+    }
+
+    @Override
+    public int indexOf(long e) {
+        long x = encode(e);
+        if (Long.compareUnsigned(x, last) < 0) {
+            return -1;
+        }
+        int index = bucket(x, last);
+        int offset = 0;
+        for (int i = 0; i < index; i++) {
+            offset += sizes[i];
+        }
+        long[] bucket = buckets[index];
+        int size = sizes[index];
+        for (int i = 0; i < size; i++) {
+            if (x == bucket[i]) {
+                return offset + i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public long get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int[] sizes = this.sizes;
+        int i = 0;
+        while (index >= sizes[i]) {
+            index -= sizes[i];
+            i++;
+        }
+        return decode(buckets[i][index]);
+    }
+
+    @Override
+    public long remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int[] sizes = this.sizes;
+        int i = 0;
+        while (index >= sizes[i]) {
+            index -= sizes[i];
+            i++;
+        }
+        long[] bucket = buckets[i];
+        long removed = bucket[index];
+        bucket[index] = bucket[--sizes[i]];
+        size--;
+        return decode(removed);
+    }
+
+    @Override
+    public void clear() {
+        int[] sizes = this.sizes;
+        for (int i = 0; i < BUCKETS; i++) {
+            sizes[i] = 0;
+        }
+        this.size = 0;
+        this.last = 0;
+    }
+
+    @Override
+    public boolean removeIf(LongPredicate filter) {
+        long[][] buckets = this.buckets;
+        int[] sizes = this.sizes;
+        int removed = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long[] bucket = buckets[i];
+            int size = sizes[i];
+            int dest = 0;
+            for (int j = 0; j < size; j++) {
+                long x = bucket[j];
+                if (!filter.test(decode(x))) {
+                    bucket[dest++] = x;
+                }
+            }
+            removed += size - dest;
+            sizes[i] = dest;
+        }
+        if (removed == 0) {
+            return false;
+        }
+        this.size -= removed;
+        return true;
+    }
+
+    @Override
+    public void forEach(LongConsumer action) {
+        long[][] buckets = this.buckets;
+        int[] sizes = this.sizes;
+        for (int i = 0; i < BUCKETS; i++) {
+            long[] bucket = buckets[i];
+            int size = sizes[i];
+            for (int j = 0; j < size; j++) {
+                action.accept(decode(bucket[j]));
+            }
+        }
+    }
+
+    @Override
+    public LongRadixHeapQueue clone() {
+        LongRadixHeapQueue clone;
+        try {
+            clone = (LongRadixHeapQueue) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+        long[][] buckets = new long[BUCKETS][];
+        int[] sizes = this.sizes;
+        for (int i = 0; i < BUCKETS; i++) {
+            int size = sizes[i];
+            buckets[i] = size == 0 ? EMPTY_ARRAY : resize(this.buckets[i], size, size);
+        }
+        clone.buckets = buckets;
+        clone.sizes = sizes.clone();
+        return clone;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LongRadixHeapQueue that = (LongRadixHeapQueue) o;
+        if (size != that.size || last != that.last) {
+            return false;
+        }
+        for (int i = 0; i < BUCKETS; i++) {
+            int size = sizes[i];
+            if (size != that.sizes[i]) {
+                return false;
+            }
+            long[] b1 = buckets[i];
+            long[] b2 = that.buckets[i];
+            for (int j = 0; j < size; j++) {
+                if (b1[j] != b2[j]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int size = this.size;
+        int hash = size == 0 ? 31 : size;
+        for (int i = 0; i < BUCKETS; i++) {
+            long[] bucket = buckets[i];
+            int bucketSize = sizes[i];
+            for (int j = 0; j < bucketSize; j++) {
+                hash = 31 * hash + Long.hashCode(decode(bucket[j]));
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        int size = this.size;
+        if (size == 0) {
+            return "[]";
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        forEach(e -> sb.append(e).append(',').append(' '));
+        sb.setLength(sb.length() - 2);
+        sb.append(']');
+        return sb.toString();
+    }
+}
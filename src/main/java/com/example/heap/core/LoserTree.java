@@ -0,0 +1,109 @@
+package com.example.heap.core;
+
+import java.util.NoSuchElementException;
+
+//  tournament over the heads of k sources, shared by the object and primitive mergers;
+//  subclasses keep the sources and their heads and only supply pull and compare
+abstract class LoserTree {
+
+    private final boolean[] exhausted;
+
+    //  losers[node] is the source that lost the match at an inner node, the leaf of
+    //  source i is node k + i
+    private final int[] losers;
+
+    private int winner;
+
+    private boolean started;
+
+    private boolean stale;
+
+    LoserTree(int k) {
+        this.exhausted = new boolean[k];
+        this.losers = new int[Math.max(k, 1)];
+    }
+
+    //  reads the next head of the source, false once the source is empty
+    abstract boolean pull(int source);
+
+    abstract int compare(int a, int b);
+
+    private boolean beats(int a, int b) {
+        if (exhausted[a]) {
+            return false;
+        }
+        if (exhausted[b]) {
+            return true;
+        }
+        int cmp = compare(a, b);
+        return cmp < 0 || cmp == 0 && a < b;
+    }
+
+    private void advance(int source) {
+        if (!pull(source)) {
+            exhausted[source] = true;
+        }
+    }
+
+    private void start() {
+        started = true;
+        int k = exhausted.length;
+        if (k == 0) {
+            winner = -1;
+            return;
+        }
+        for (int i = 0; i < k; i++) {
+            advance(i);
+        }
+        int[] winners = new int[k];
+        for (int node = k - 1; node > 0; node--) {
+            int left = node << 1;
+            int right = left + 1;
+            int a = left >= k ? left - k : winners[left];
+            int b = right >= k ? right - k : winners[right];
+            if (beats(b, a)) {
+                winners[node] = b;
+                losers[node] = a;
+            } else {
+                winners[node] = a;
+                losers[node] = b;
+            }
+        }
+        winner = k == 1 ? 0 : winners[1];
+    }
+
+    //  advances the source of the element returned last and replays its matches up
+    //  to the root
+    private void refill() {
+        stale = false;
+        int winner = this.winner;
+        advance(winner);
+        int[] losers = this.losers;
+        for (int node = (winner + exhausted.length) >>> 1; node > 0; node >>>= 1) {
+            int loser = losers[node];
+            if (beats(loser, winner)) {
+                losers[node] = winner;
+                winner = loser;
+            }
+        }
+        this.winner = winner;
+    }
+
+    public boolean hasNext() {
+        if (!started) {
+            start();
+        } else if (stale) {
+            refill();
+        }
+        return winner >= 0 && !exhausted[winner];
+    }
+
+    //  the source whose head is returned next
+    int nextSource() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        stale = true;
+        return winner;
+    }
+}
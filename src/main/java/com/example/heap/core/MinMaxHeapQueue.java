@@ -0,0 +1,236 @@
+package com.example.heap.core;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+//  nodes on even levels are not greater than any of their descendants and nodes on odd
+//  levels are not less than any of them, so the first element is at the root and the
+//  last one is one of its two children
+public class MinMaxHeapQueue<E> extends AbstractArrayHeapQueue<E> {
+
+    public MinMaxHeapQueue(Comparator<? super E> comparator) {
+        super(comparator, 0, CapacityPolicy.DEFAULT);
+    }
+
+    public MinMaxHeapQueue(Comparator<? super E> comparator, int initialCapacity) {
+        super(comparator, initialCapacity, CapacityPolicy.DEFAULT);
+    }
+
+    public MinMaxHeapQueue(Comparator<? super E> comparator, Collection<? extends E> c) {
+        super(comparator, toArray(c), CapacityPolicy.DEFAULT);
+        heapify();
+    }
+
+    public MinMaxHeapQueue(Comparator<? super E> comparator, E[] array) {
+        super(comparator, Arrays.copyOf(array, array.length, Object[].class), CapacityPolicy.DEFAULT);
+        heapify();
+    }
+
+    private static boolean isMinLevel(int index) {
+        return ((31 - Integer.numberOfLeadingZeros(index + 1)) & 1) == 0;
+    }
+
+    //  sign is 1 on min levels and -1 on max levels, a node and its grandparent are
+    //  ordered by sign * compare, a node and its parent by the opposite
+    private void siftUp(int index, E e) {
+        int sign = isMinLevel(index) ? 1 : -1;
+        if (index > 0) {
+            int parentIndex = HeapQueue.parent(index);
+            @SuppressWarnings("unchecked")
+            E parent = (E) data[parentIndex];
+            if (sign * comparator.compare(e, parent) > 0) {
+                data[index] = parent;
+                index = parentIndex;
+                sign = -sign;
+            }
+        }
+        siftUpGrandparents(index, e, sign);
+    }
+
+    private void siftUpGrandparents(int index, E e, int sign) {
+        Object[] data = this.data;
+        while (index > 2) {
+            int grandparentIndex = HeapQueue.parent(HeapQueue.parent(index));
+            @SuppressWarnings("unchecked")
+            E grandparent = (E) data[grandparentIndex];
+            if (sign * comparator.compare(e, grandparent) >= 0) {
+                break;
+            }
+            data[index] = grandparent;
+            index = grandparentIndex;
+        }
+        data[index] = e;
+    }
+
+    private void siftDown(int index, E e) {
+        Object[] data = this.data;
+        int size = this.size;
+        int sign = isMinLevel(index) ? 1 : -1;
+        while (true) {
+            int childIndex = HeapQueue.left(index);
+            if (childIndex >= size) {
+                break;
+            }
+            int minIndex = childIndex;
+            @SuppressWarnings("unchecked")
+            E min = (E) data[childIndex];
+            int end = Math.min(childIndex + 2, size);
+            for (int i = childIndex + 1; i < end; i++) {
+                @SuppressWarnings("unchecked")
+                E child = (E) data[i];
+                if (sign * comparator.compare(child, min) < 0) {
+                    minIndex = i;
+                    min = child;
+                }
+            }
+            //  the grandchildren are the four consecutive slots below the two children
+            int grandchildIndex = HeapQueue.left(childIndex);
+            end = Math.min(grandchildIndex + 4, size);
+            for (int i = grandchildIndex; i < end; i++) {
+                @SuppressWarnings("unchecked")
+                E grandchild = (E) data[i];
+                if (sign * comparator.compare(grandchild, min) < 0) {
+                    minIndex = i;
+                    min = grandchild;
+                }
+            }
+            if (sign * comparator.compare(min, e) >= 0) {
+                break;
+            }
+            data[index] = min;
+            index = minIndex;
+            if (minIndex < grandchildIndex) {
+                break;
+            }
+            int parentIndex = HeapQueue.parent(minIndex);
+            @SuppressWarnings("unchecked")
+            E parent = (E) data[parentIndex];
+            if (sign * comparator.compare(e, parent) > 0) {
+                data[parentIndex] = e;
+                e = parent;
+            }
+        }
+        data[index] = e;
+    }
+
+    //  moves e into a free slot at index, in either direction
+    private void replace(int index, E e) {
+        if (index > 0) {
+            Object[] data = this.data;
+            int parentIndex = HeapQueue.parent(index);
+            @SuppressWarnings("unchecked")
+            E parent = (E) data[parentIndex];
+            int sign = isMinLevel(index) ? 1 : -1;
+            if (sign * comparator.compare(e, parent) > 0) {
+                siftUpGrandparents(parentIndex, e, -sign);
+                siftDown(index, parent);
+                return;
+            }
+            if (index > 2) {
+                int grandparentIndex = HeapQueue.parent(parentIndex);
+                @SuppressWarnings("unchecked")
+                E grandparent = (E) data[grandparentIndex];
+                if (sign * comparator.compare(e, grandparent) < 0) {
+                    siftUpGrandparents(index, e, sign);
+                    return;
+                }
+            }
+        }
+        siftDown(index, e);
+    }
+
+    @Override
+    void heapify() {
+        Object[] data = this.data;
+        int i = (size >>> 1) - 1;
+        while (i >= 0) {
+            @SuppressWarnings("unchecked")
+            E element = (E) data[i];
+            siftDown(i, element);
+            i--;
+        }
+    }
+
+    private int lastIndex() {
+        int size = this.size;
+        if (size < 3) {
+            return size - 1;
+        }
+        @SuppressWarnings("unchecked")
+        E left = (E) data[1];
+        @SuppressWarnings("unchecked")
+        E right = (E) data[2];
+        return comparator.compare(left, right) >= 0 ? 1 : 2;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        int lastIndex = this.size;
+        int newSize = lastIndex + 1;
+        if (newSize >= data.length && !grow(newSize)) {
+            return false;
+        }
+        siftUp(lastIndex, e);
+        this.size = newSize;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        return pollFirst();
+    }
+
+    public E peekFirst() {
+        if (isEmpty()) {
+            return null;
+        }
+        return get(0);
+    }
+
+    public E peekLast() {
+        if (isEmpty()) {
+            return null;
+        }
+        return get(lastIndex());
+    }
+
+    public E pollFirst() {
+        if (isEmpty()) {
+            return null;
+        }
+        return remove(0);
+    }
+
+    public E pollLast() {
+        if (isEmpty()) {
+            return null;
+        }
+        return remove(lastIndex());
+    }
+
+    @Override
+    public E remove(int index) {
+        Object[] data = this.data;
+        int lastIndex = --size;
+        modCount++;
+        @SuppressWarnings("unchecked")
+        E removed = (E) data[index];
+        @SuppressWarnings("unchecked")
+        E last = (E) data[lastIndex];
+        data[lastIndex] = null;
+        if (lastIndex != index) {
+            replace(index, last);
+        }
+        if (lastIndex < shrinkBelow) {
+            shrink();
+        }
+        return removed;
+    }
+
+    @Override
+    public MinMaxHeapQueue<E> clone() {
+        return (MinMaxHeapQueue<E>) super.clone();
+    }
+}
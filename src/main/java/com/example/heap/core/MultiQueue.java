@@ -0,0 +1,221 @@
+package com.example.heap.core;
+
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+//  relaxed concurrent priority queue: poll returns the better head of two randomly
+//  sampled shards, so it is only approximately the smallest queued element
+public class MultiQueue<E> {
+
+    private final Shard<E>[] shards;
+
+    private final Comparator<? super E> comparator;
+
+    @SuppressWarnings("unchecked")
+    public MultiQueue(Comparator<? super E> comparator, int shardCount) {
+        if (shardCount < 2) {
+            throw new IllegalArgumentException("shard count should be at least 2: " + shardCount);
+        }
+        Shard<E>[] shards = (Shard<E>[]) new Shard<?>[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard<>(new ArrayHeapQueue<>(comparator));
+        }
+        this.shards = shards;
+        this.comparator = comparator;
+    }
+
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Shard<E> shard : shards) {
+            size += shard.size;
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        for (Shard<E> shard : shards) {
+            if (shard.top != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean offer(E e) {
+        Objects.requireNonNull(e);
+        Shard<E>[] shards = this.shards;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            Shard<E> shard = shards[random.nextInt(shards.length)];
+            if (shard.lock.tryLock()) {
+                try {
+                    shard.offer(e);
+                } finally {
+                    shard.lock.unlock();
+                }
+                return true;
+            }
+        }
+    }
+
+    public E peek() {
+        E min = null;
+        for (Shard<E> shard : shards) {
+            E top = shard.top;
+            if (top != null && (min == null || comparator.compare(top, min) < 0)) {
+                min = top;
+            }
+        }
+        return min;
+    }
+
+    public E poll() {
+        Shard<E>[] shards = this.shards;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            int i = random.nextInt(shards.length);
+            int j = random.nextInt(shards.length - 1);
+            if (j >= i) {
+                j++;
+            }
+            Shard<E> shard = better(shards[i], shards[j]);
+            if (shard == null) {
+                //  both samples were empty, fall back to any non-empty shard
+                shard = nonEmpty(random.nextInt(shards.length));
+                if (shard == null) {
+                    return null;
+                }
+            }
+            if (shard.lock.tryLock()) {
+                try {
+                    if (shard.top != null) {
+                        return shard.poll();
+                    }
+                } finally {
+                    shard.lock.unlock();
+                }
+            }
+        }
+    }
+
+    private Shard<E> better(Shard<E> s1, Shard<E> s2) {
+        E top1 = s1.top;
+        E top2 = s2.top;
+        if (top1 == null) {
+            return top2 == null ? null : s2;
+        }
+        if (top2 == null) {
+            return s1;
+        }
+        return comparator.compare(top1, top2) <= 0 ? s1 : s2;
+    }
+
+    private Shard<E> nonEmpty(int start) {
+        Shard<E>[] shards = this.shards;
+        for (int k = 0; k < shards.length; k++) {
+            Shard<E> shard = shards[(start + k) % shards.length];
+            if (shard.top != null) {
+                return shard;
+            }
+        }
+        return null;
+    }
+
+    public void clear() {
+        for (Shard<E> shard : shards) {
+            shard.lock.lock();
+            try {
+                shard.clear();
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    //  number of queued elements strictly smaller than e; called right after a poll it
+    //  measures how far the polled element was from the true minimum. Locks every shard
+    //  in turn and scans it, so it is meant for sampling, not for the hot path
+    public long rankError(E e) {
+        long rank = 0;
+        for (Shard<E> shard : shards) {
+            shard.lock.lock();
+            try {
+                ArrayHeapQueue<E> queue = shard.queue;
+                int size = queue.size();
+                for (int i = 0; i < size; i++) {
+                    if (comparator.compare(queue.get(i), e) < 0) {
+                        rank++;
+                    }
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return rank;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        for (Shard<E> shard : shards) {
+            shard.lock.lock();
+            try {
+                sb.append(shard.queue).append(',').append(' ');
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        sb.setLength(sb.length() - 2);
+        sb.append(']');
+        return sb.toString();
+    }
+
+    private static class Shard<E> {
+
+        private final ReentrantLock lock;
+
+        private final ArrayHeapQueue<E> queue;
+
+        //  published under the lock so that pollers can sample without it
+        private volatile E top;
+
+        private volatile int size;
+
+        private Shard(ArrayHeapQueue<E> queue) {
+            this.lock = new ReentrantLock();
+            this.queue = queue;
+        }
+
+        private void offer(E e) {
+            ArrayHeapQueue<E> queue = this.queue;
+            queue.offer(e);
+            top = queue.peek();
+            size = queue.size();
+        }
+
+        private E poll() {
+            ArrayHeapQueue<E> queue = this.queue;
+            E polled = queue.poll();
+            top = queue.peek();
+            size = queue.size();
+            return polled;
+        }
+
+        private void clear() {
+            queue.clear();
+            top = null;
+            size = 0;
+        }
+    }
+}
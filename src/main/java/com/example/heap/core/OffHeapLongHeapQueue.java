@@ -0,0 +1,285 @@
+package com.example.heap.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+//  heap of fixed-size (long key, long payload) records stored outside the Java heap in
+//  direct or memory-mapped buffers; storage grows one chunk at a time, so it is never
+//  copied and a single queue can hold more than the 2 GB a buffer can address
+//
+//  sizes and indices are longs, which is why this does not implement LongHeapQueue and
+//  its int based size, get and remove
+public class OffHeapLongHeapQueue implements Closeable {
+
+    private static final int RECORD_SHIFT = 4;
+
+    private static final int CHUNK_SHIFT = 22;
+
+    private static final int CHUNK_RECORDS = 1 << CHUNK_SHIFT;
+
+    private static final int CHUNK_MASK = CHUNK_RECORDS - 1;
+
+    private static final int CHUNK_BYTES = CHUNK_RECORDS << RECORD_SHIFT;
+
+    private static final ByteBuffer[] EMPTY_CHUNKS = {};
+
+    private ByteBuffer[] chunks;
+
+    private long size;
+
+    private final LongComparator comparator;
+
+    private final FileChannel channel;
+
+    private OffHeapLongHeapQueue(LongComparator comparator, FileChannel channel) {
+        this.chunks = EMPTY_CHUNKS;
+        this.comparator = comparator;
+        this.channel = channel;
+    }
+
+    public static OffHeapLongHeapQueue direct(LongComparator comparator) {
+        return new OffHeapLongHeapQueue(comparator, null);
+    }
+
+    //  the file is scratch space: it is truncated on open and its content is not kept
+    public static OffHeapLongHeapQueue mapped(LongComparator comparator, Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        return new OffHeapLongHeapQueue(comparator, channel);
+    }
+
+    public LongComparator comparator() {
+        return comparator;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long capacity() {
+        return (long) chunks.length << CHUNK_SHIFT;
+    }
+
+    public void ensureCapacity(long minCapacity) {
+        while (minCapacity > capacity()) {
+            addChunk();
+        }
+    }
+
+    private void addChunk() {
+        ByteBuffer[] chunks = this.chunks;
+        int index = chunks.length;
+        ByteBuffer chunk;
+        if (channel == null) {
+            chunk = ByteBuffer.allocateDirect(CHUNK_BYTES);
+        } else {
+            try {
+                chunk = channel.map(FileChannel.MapMode.READ_WRITE, (long) index * CHUNK_BYTES, CHUNK_BYTES);
+            } catch (IOException e) {
+                throw new IllegalStateException("cannot map chunk " + index, e);
+            }
+        }
+        chunk.order(ByteOrder.nativeOrder());
+        ByteBuffer[] array = new ByteBuffer[index + 1];
+        System.arraycopy(chunks, 0, array, 0, index);
+        array[index] = chunk;
+        this.chunks = array;
+    }
+
+    private ByteBuffer chunk(long index) {
+        return chunks[(int) (index >>> CHUNK_SHIFT)];
+    }
+
+    private static int offset(long index) {
+        return ((int) index & CHUNK_MASK) << RECORD_SHIFT;
+    }
+
+    public long getKey(long index) {
+        checkIndex(index);
+        return chunk(index).getLong(offset(index));
+    }
+
+    public long getPayload(long index) {
+        checkIndex(index);
+        return chunk(index).getLong(offset(index) + Long.BYTES);
+    }
+
+    private void checkIndex(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private void write(long index, long key, long payload) {
+        ByteBuffer chunk = chunk(index);
+        int offset = offset(index);
+        chunk.putLong(offset, key);
+        chunk.putLong(offset + Long.BYTES, payload);
+    }
+
+    private void move(long from, long to) {
+        ByteBuffer source = chunk(from);
+        int offset = offset(from);
+        write(to, source.getLong(offset), source.getLong(offset + Long.BYTES));
+    }
+
+    private void siftUp(long index, long key, long payload) {
+        while (index > 0) {
+            long parentIndex = (index - 1) >>> 1;
+            long parent = chunk(parentIndex).getLong(offset(parentIndex));
+            if (comparator.compare(key, parent) >= 0) {
+                break;
+            }
+            move(parentIndex, index);
+            index = parentIndex;
+        }
+        write(index, key, payload);
+    }
+
+    private long siftDown(long index, long key, long payload) {
+        long size = this.size;
+        long mid = size >>> 1;
+        while (index < mid) {
+            long minIndex = (index << 1) + 1;
+            long min = chunk(minIndex).getLong(offset(minIndex));
+            long rightIndex = minIndex + 1;
+            if (rightIndex < size) {
+                long right = chunk(rightIndex).getLong(offset(rightIndex));
+                if (comparator.compare(min, right) > 0) {
+                    minIndex = rightIndex;
+                    min = right;
+                }
+            }
+            if (comparator.compare(key, min) <= 0) {
+                break;
+            }
+            move(minIndex, index);
+            index = minIndex;
+        }
+        write(index, key, payload);
+        return index;
+    }
+
+    public boolean offer(long key, long payload) {
+        long lastIndex = this.size;
+        ensureCapacity(lastIndex + 1);
+        siftUp(lastIndex, key, payload);
+        this.size = lastIndex + 1;
+        return true;
+    }
+
+    public long peekKey() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return chunks[0].getLong(0);
+    }
+
+    public long peekPayload() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return chunks[0].getLong(Long.BYTES);
+    }
+
+    //  removes the head and returns its key, read its payload with peekPayload beforehand
+    public long pollKey() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        long key = chunks[0].getLong(0);
+        remove(0);
+        return key;
+    }
+
+    //  removes the head and returns its payload, read its key with peekKey beforehand
+    public long pollPayload() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        long payload = chunks[0].getLong(Long.BYTES);
+        remove(0);
+        return payload;
+    }
+
+    public void remove(long index) {
+        checkIndex(index);
+        long lastIndex = --size;
+        if (lastIndex != index) {
+            ByteBuffer chunk = chunk(lastIndex);
+            int offset = offset(lastIndex);
+            long key = chunk.getLong(offset);
+            long payload = chunk.getLong(offset + Long.BYTES);
+            if (siftDown(index, key, payload) == index) {
+                siftUp(index, key, payload);
+            }
+        }
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    //  drops the unused chunks and cuts the mapped file down to the chunks that are left;
+    //  the memory of a dropped chunk is only returned once its buffer is garbage collected
+    public void trimToSize() {
+        int used = (int) ((size + CHUNK_MASK) >>> CHUNK_SHIFT);
+        if (used < chunks.length) {
+            ByteBuffer[] array = new ByteBuffer[used];
+            System.arraycopy(chunks, 0, array, 0, used);
+            chunks = array;
+            if (channel != null) {
+                try {
+                    channel.truncate((long) used * CHUNK_BYTES);
+                } catch (IOException e) {
+                    throw new IllegalStateException("cannot truncate to " + used + " chunks", e);
+                }
+            }
+        }
+    }
+
+    //  flushes mapped chunks, closes the file and drops the chunks; neither direct nor
+    //  mapped buffers can be freed explicitly, their memory is returned when they are
+    //  garbage collected
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            for (ByteBuffer chunk : chunks) {
+                ((MappedByteBuffer) chunk).force();
+            }
+            channel.close();
+        }
+        chunks = EMPTY_CHUNKS;
+        size = 0;
+    }
+
+    @Override
+    public String toString() {
+        long size = this.size;
+        if (size == 0) {
+            return "[]";
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        for (long i = 0; i < size; i++) {
+            sb.append(getKey(i)).append('=').append(getPayload(i)).append(',').append(' ');
+        }
+        sb.setLength(sb.length() - 2);
+        sb.append(']');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,430 @@
+package com.example.heap.core;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+//  two-pass pairing heap: offer, meld and decreasing a handle are O(1), poll is amortized
+//  O(log n); index based operations walk the nodes in preorder and cost O(index)
+public class PairingHeapQueue<E> implements HeapQueue<E> {
+
+    private Node<E> root;
+
+    private int size;
+
+    private Owner<E> owner;
+
+    private Node<E>[] pairs;
+
+    private final Comparator<? super E> comparator;
+
+    @SuppressWarnings("unchecked")
+    public PairingHeapQueue(Comparator<? super E> comparator) {
+        this.owner = new Owner<>(this);
+        this.pairs = (Node<E>[]) new Node<?>[16];
+        this.comparator = comparator;
+    }
+
+    public HeapHandle<E> insert(E e) {
+        Node<E> node = new Node<>(owner, e);
+        root = link(root, node);
+        size++;
+        return node;
+    }
+
+    //  moves every element of other into this queue, other is left empty and its
+    //  handles now belong to this queue; both queues should use the same order
+    public void meld(PairingHeapQueue<E> other) {
+        if (other == this) {
+            throw new IllegalArgumentException("cannot meld a queue into itself");
+        }
+        if (other.root == null) {
+            return;
+        }
+        other.owner.forward = owner;
+        other.owner = new Owner<>(other);
+        root = link(root, other.root);
+        size += other.size;
+        other.root = null;
+        other.size = 0;
+    }
+
+    private Node<E> link(Node<E> a, Node<E> b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (comparator.compare(b.element, a.element) < 0) {
+            Node<E> t = a;
+            a = b;
+            b = t;
+        }
+        Node<E> child = a.child;
+        b.sibling = child;
+        if (child != null) {
+            child.prev = b;
+        }
+        b.prev = a;
+        a.child = b;
+        return a;
+    }
+
+    private Node<E> combineSiblings(Node<E> first) {
+        Node<E>[] pairs = this.pairs;
+        int count = 0;
+        for (Node<E> node = first; node != null; ) {
+            Node<E> next = node.sibling;
+            node.prev = null;
+            node.sibling = null;
+            if (count == pairs.length) {
+                this.pairs = pairs = Arrays.copyOf(pairs, count << 1);
+            }
+            pairs[count++] = node;
+            node = next;
+        }
+        return combine(pairs, count);
+    }
+
+    //  links the nodes in pairs from left to right, then the pairs from right to left
+    private Node<E> combine(Node<E>[] nodes, int count) {
+        if (count == 0) {
+            return null;
+        }
+        int pairCount = 0;
+        for (int i = 0; i + 1 < count; i += 2) {
+            nodes[pairCount++] = link(nodes[i], nodes[i + 1]);
+        }
+        if ((count & 1) != 0) {
+            nodes[pairCount++] = nodes[count - 1];
+        }
+        Node<E> result = nodes[pairCount - 1];
+        for (int i = pairCount - 2; i >= 0; i--) {
+            result = link(nodes[i], result);
+        }
+        Arrays.fill(nodes, 0, count, null);
+        return result;
+    }
+
+    private static <E> void cut(Node<E> node) {
+        Node<E> prev = node.prev;
+        Node<E> sibling = node.sibling;
+        if (prev.child == node) {
+            prev.child = sibling;
+        } else {
+            prev.sibling = sibling;
+        }
+        if (sibling != null) {
+            sibling.prev = prev;
+        }
+        node.prev = null;
+        node.sibling = null;
+    }
+
+    private void detach(Node<E> node) {
+        if (node == root) {
+            root = combineSiblings(node.child);
+        } else {
+            cut(node);
+            root = link(root, combineSiblings(node.child));
+        }
+        node.child = null;
+    }
+
+    private void decrease(Node<E> node) {
+        if (node != root) {
+            cut(node);
+            root = link(root, node);
+        }
+    }
+
+    private void reinsert(Node<E> node) {
+        detach(node);
+        root = link(root, node);
+    }
+
+    private E removeNode(Node<E> node) {
+        detach(node);
+        node.owner = null;
+        size--;
+        return node.element;
+    }
+
+    //  next node in preorder, the parent of a node is the prev of the first of its siblings
+    private static <E> Node<E> successor(Node<E> node) {
+        if (node.child != null) {
+            return node.child;
+        }
+        while (node != null) {
+            if (node.sibling != null) {
+                return node.sibling;
+            }
+            Node<E> prev = node.prev;
+            while (prev != null && prev.child != node) {
+                node = prev;
+                prev = node.prev;
+            }
+            node = prev;
+        }
+        return null;
+    }
+
+    private Node<E> node(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        Node<E> node = root;
+        for (int i = 0; i < index; i++) {
+            node = successor(node);
+        }
+        return node;
+    }
+
+    @Override
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean contains(E e) {
+        return indexOf(e) >= 0;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        insert(e);
+        return true;
+    }
+
+    @Override
+    public E peek() {
+        Node<E> root = this.root;
+        return root == null ? null : root.element;
+    }
+
+    @Override
+    public E poll() {
+        Node<E> root = this.root;
+        if (root == null) {
+            return null;
+        }
+        return removeNode(root);
+    }
+
+    @Override
+    public int indexOf(E e) {
+        int index = 0;
+        for (Node<E> node = root; node != null; node = successor(node)) {
+            if (Objects.equals(e, node.element)) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    @Override
+    public E get(int index) {
+        return node(index).element;
+    }
+
+    @Override
+    public E remove(int index) {
+        return removeNode(node(index));
+    }
+
+    //  handles of the removed elements become invalid in O(1) by retiring the owner
+    @Override
+    public void clear() {
+        owner.queue = null;
+        owner = new Owner<>(this);
+        root = null;
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        int size = this.size;
+        Node<E>[] nodes = (Node<E>[]) new Node<?>[size];
+        int count = 0;
+        for (Node<E> node = root; node != null; node = successor(node)) {
+            nodes[count++] = node;
+        }
+        int dest = 0;
+        for (int i = 0; i < count; i++) {
+            Node<E> node = nodes[i];
+            node.prev = null;
+            node.sibling = null;
+            node.child = null;
+            if (filter.test(node.element)) {
+                node.owner = null;
+            } else {
+                nodes[dest++] = node;
+            }
+        }
+        this.root = combine(nodes, dest);
+        this.size = dest;
+        return dest != size;
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        for (Node<E> node = root; node != null; node = successor(node)) {
+            action.accept(node.element);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PairingHeapQueue<?> that = (PairingHeapQueue<?>) o;
+        if (size != that.size) {
+            return false;
+        }
+        Node<?> b = that.root;
+        for (Node<E> a = root; a != null; a = successor(a)) {
+            if (!Objects.equals(a.element, b.element)) {
+                return false;
+            }
+            b = successor(b);
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int size = this.size;
+        int hash = size == 0 ? 31 : size;
+        for (Node<E> node = root; node != null; node = successor(node)) {
+            E e = node.element;
+            hash = 31 * hash + (e != null ? e.hashCode() : 0);
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        if (size == 0) {
+            return "[]";
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        for (Node<E> node = root; node != null; node = successor(node)) {
+            sb.append(node.element).append(',').append(' ');
+        }
+        sb.setLength(sb.length() - 2);
+        sb.append(']');
+        return sb.toString();
+    }
+
+    //  nodes point to an owner instead of the queue, meld forwards the owner of the
+    //  melded queue so that its handles follow without being visited
+    private static final class Owner<E> {
+
+        private PairingHeapQueue<E> queue;
+
+        private Owner<E> forward;
+
+        private Owner(PairingHeapQueue<E> queue) {
+            this.queue = queue;
+        }
+    }
+
+    static final class Node<E> implements HeapHandle<E> {
+
+        private Owner<E> owner;
+
+        private E element;
+
+        private Node<E> child;
+
+        private Node<E> sibling;
+
+        //  the parent for a first child, the previous sibling otherwise
+        private Node<E> prev;
+
+        private Node(Owner<E> owner, E element) {
+            this.owner = owner;
+            this.element = element;
+        }
+
+        private PairingHeapQueue<E> queue() {
+            Owner<E> owner = this.owner;
+            if (owner == null) {
+                return null;
+            }
+            if (owner.forward != null) {
+                Owner<E> last = owner.forward;
+                while (last.forward != null) {
+                    last = last.forward;
+                }
+                while (owner != last) {
+                    Owner<E> next = owner.forward;
+                    owner.forward = last;
+                    owner = next;
+                }
+                this.owner = last;
+            }
+            return owner.queue;
+        }
+
+        @Override
+        public E get() {
+            return element;
+        }
+
+        @Override
+        public boolean isValid() {
+            return queue() != null;
+        }
+
+        @Override
+        public void update() {
+            PairingHeapQueue<E> queue = queue();
+            if (queue == null) {
+                throw new IllegalStateException("handle is no longer queued");
+            }
+            queue.reinsert(this);
+        }
+
+        @Override
+        public void update(E e) {
+            PairingHeapQueue<E> queue = queue();
+            if (queue == null) {
+                throw new IllegalStateException("handle is no longer queued");
+            }
+            E old = element;
+            element = e;
+            if (queue.comparator.compare(e, old) <= 0) {
+                queue.decrease(this);
+            } else {
+                queue.reinsert(this);
+            }
+        }
+
+        @Override
+        public boolean remove() {
+            PairingHeapQueue<E> queue = queue();
+            if (queue == null) {
+                return false;
+            }
+            queue.removeNode(this);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.heap.core;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.function.Predicate;
+
+//  every element gets an insertion sequence number kept in a parallel array, elements
+//  that the comparator considers equal leave the queue in insertion order
+public class StableArrayHeapQueue<E> extends AbstractArrayHeapQueue<E> {
+
+    private static final long[] EMPTY_SEQUENCES = {};
+
+    private long[] sequences;
+
+    private long nextSequence;
+
+    public StableArrayHeapQueue(Comparator<? super E> comparator) {
+        this(comparator, 0);
+    }
+
+    public StableArrayHeapQueue(Comparator<? super E> comparator, int initialCapacity) {
+        super(comparator, initialCapacity, CapacityPolicy.DEFAULT);
+        this.sequences = initialCapacity == 0 ? EMPTY_SEQUENCES : new long[initialCapacity];
+    }
+
+    public StableArrayHeapQueue(Comparator<? super E> comparator, Collection<? extends E> c) {
+        super(comparator, toArray(c), CapacityPolicy.DEFAULT);
+        number();
+    }
+
+    public StableArrayHeapQueue(Comparator<? super E> comparator, E[] array) {
+        super(comparator, Arrays.copyOf(array, array.length, Object[].class), CapacityPolicy.DEFAULT);
+        number();
+    }
+
+    //  numbers the adopted elements in array order, then heapifies
+    private void number() {
+        int size = this.size;
+        long[] sequences = size == 0 ? EMPTY_SEQUENCES : new long[size];
+        for (int i = 0; i < size; i++) {
+            sequences[i] = i;
+        }
+        this.sequences = sequences;
+        this.nextSequence = size;
+        heapify();
+    }
+
+    @Override
+    void resize(int length) {
+        int size = this.size;
+        super.resize(length);
+        long[] sequenceArray = length == 0 ? EMPTY_SEQUENCES : new long[length];
+        System.arraycopy(sequences, 0, sequenceArray, 0, size);
+        sequences = sequenceArray;
+    }
+
+    @Override
+    public long retainedBytes() {
+        return super.retainedBytes() + ((ARRAY_HEADER_BYTES + 8L * sequences.length + 7) & ~7L);
+    }
+
+    //  sequence numbers are unique, so two different slots never compare equal
+    private boolean less(E a, long aSequence, E b, long bSequence) {
+        int cmp = comparator.compare(a, b);
+        return cmp < 0 || (cmp == 0 && aSequence < bSequence);
+    }
+
+    private void siftUp(int index, E e, long sequence) {
+        Object[] data = this.data;
+        long[] sequences = this.sequences;
+        while (index > 0) {
+            int parentIndex = HeapQueue.parent(index);
+            @SuppressWarnings("unchecked")
+            E parent = (E) data[parentIndex];
+            long parentSequence = sequences[parentIndex];
+            if (!less(e, sequence, parent, parentSequence)) {
+                break;
+            }
+            data[index] = parent;
+            sequences[index] = parentSequence;
+            index = parentIndex;
+        }
+        data[index] = e;
+        sequences[index] = sequence;
+    }
+
+    private void siftDown(int index, E e, long sequence) {
+        Object[] data = this.data;
+        long[] sequences = this.sequences;
+        int size = this.size;
+        int mid = size >>> 1;
+        while (index < mid) {
+            int leftIndex = HeapQueue.left(index);
+            @SuppressWarnings("unchecked")
+            E left = (E) data[leftIndex];
+            int minIndex = leftIndex;
+            E min = left;
+            long minSequence = sequences[leftIndex];
+            int rightIndex = HeapQueue.right(index);
+            if (rightIndex < size) {
+                @SuppressWarnings("unchecked")
+                E right = (E) data[rightIndex];
+                long rightSequence = sequences[rightIndex];
+                if (less(right, rightSequence, left, minSequence)) {
+                    minIndex = rightIndex;
+                    min = right;
+                    minSequence = rightSequence;
+                }
+            }
+            if (!less(min, minSequence, e, sequence)) {
+                break;
+            }
+            data[index] = min;
+            sequences[index] = minSequence;
+            index = minIndex;
+        }
+        data[index] = e;
+        sequences[index] = sequence;
+    }
+
+    @Override
+    void heapify() {
+        Object[] data = this.data;
+        long[] sequences = this.sequences;
+        int i = (size >>> 1) - 1;
+        while (i >= 0) {
+            @SuppressWarnings("unchecked")
+            E element = (E) data[i];
+            siftDown(i, element, sequences[i]);
+            i--;
+        }
+    }
+
+    @Override
+    public boolean offer(E e) {
+        int lastIndex = this.size;
+        int newSize = lastIndex + 1;
+        if (newSize >= data.length && !grow(newSize)) {
+            return false;
+        }
+        siftUp(lastIndex, e, nextSequence++);
+        this.size = newSize;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        if (isEmpty()) {
+            return null;
+        }
+        return remove(0);
+    }
+
+    @Override
+    public E remove(int index) {
+        Object[] data = this.data;
+        long[] sequences = this.sequences;
+        int lastIndex = --size;
+        modCount++;
+        @SuppressWarnings("unchecked")
+        E removed = (E) data[index];
+        @SuppressWarnings("unchecked")
+        E last = (E) data[lastIndex];
+        long lastSequence = sequences[lastIndex];
+        data[lastIndex] = null;
+        if (lastIndex != index) {
+            siftDown(index, last, lastSequence);
+            if (sequences[index] == lastSequence) {
+                siftUp(index, last, lastSequence);
+            }
+        }
+        if (lastIndex < shrinkBelow) {
+            shrink();
+        }
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        this.nextSequence = 0;
+    }
+
+    @Override
+    int compact(Predicate<? super E> filter) {
+        Object[] data = this.data;
+        long[] sequences = this.sequences;
+        int size = this.size;
+        int dest = 0;
+        for (int i = 0; i < size; i++) {
+            @SuppressWarnings("unchecked")
+            E element = (E) data[i];
+            if (!filter.test(element)) {
+                sequences[dest] = sequences[i];
+                data[dest++] = element;
+            }
+        }
+        this.size = dest;
+        for (int i = dest; i < size; i++) {
+            data[i] = null;
+        }
+        return dest;
+    }
+
+    @Override
+    public StableArrayHeapQueue<E> clone() {
+        StableArrayHeapQueue<E> clone = (StableArrayHeapQueue<E>) super.clone();
+        clone.sequences = sequences.clone();
+        return clone;
+    }
+}
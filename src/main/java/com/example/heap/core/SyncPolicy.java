@@ -0,0 +1,66 @@
+package com.example.heap.core;
+
+import java.util.concurrent.TimeUnit;
+
+//  decides when DurableHeapQueue forces its log to disk, an operation is durable
+//  once the log has been forced after it
+public final class SyncPolicy {
+
+    private final int operations;
+
+    private final long intervalNanos;
+
+    private SyncPolicy(int operations, long intervalNanos) {
+        this.operations = operations;
+        this.intervalNanos = intervalNanos;
+    }
+
+    public static SyncPolicy perOperation() {
+        return new SyncPolicy(1, 0);
+    }
+
+    //  group commit: one force for every batch of operations
+    public static SyncPolicy batched(int operations) {
+        if (operations <= 0) {
+            throw new IllegalArgumentException("operations should be positive: " + operations);
+        }
+        return new SyncPolicy(operations, 0);
+    }
+
+    //  checked when an operation is logged, call sync() to cover an idle queue
+    public static SyncPolicy timed(long interval, TimeUnit unit) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("interval should be positive: " + interval);
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("unit is null");
+        }
+        return new SyncPolicy(0, unit.toNanos(interval));
+    }
+
+    //  leaves writing back to the operating system until sync(), compaction or close
+    public static SyncPolicy none() {
+        return new SyncPolicy(0, Long.MAX_VALUE);
+    }
+
+    boolean shouldSync(int pendingOperations, long lastSyncNanos) {
+        if (operations > 0) {
+            return pendingOperations >= operations;
+        }
+        return intervalNanos != Long.MAX_VALUE && System.nanoTime() - lastSyncNanos >= intervalNanos;
+    }
+
+    @Override
+    public String toString() {
+        if (operations == 1) {
+            return "SyncPolicy[perOperation]";
+        }
+        if (operations > 0) {
+            return "SyncPolicy[batched " + operations + "]";
+        }
+        if (intervalNanos == Long.MAX_VALUE) {
+            return "SyncPolicy[none]";
+        }
+        return "SyncPolicy[timed " + intervalNanos + "ns]";
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.heap.core;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+public class SynchronizedHeapQueue<E> implements HeapQueue<E> {
+
+    //  taken first when two different mutexes have the same identity hash
+    private static final Object TIE_LOCK = new Object();
+
+    private final HeapQueue<E> queue;
+
+    private final Object mutex;
+
+    public SynchronizedHeapQueue(HeapQueue<E> queue) {
+        this(queue, new Object());
+    }
+
+    public SynchronizedHeapQueue(HeapQueue<E> queue, Object mutex) {
+        this.queue = Objects.requireNonNull(queue, "queue is null");
+        this.mutex = Objects.requireNonNull(mutex, "mutex is null");
+    }
+
+    @Override
+    public Comparator<? super E> comparator() {
+        return queue.comparator();
+    }
+
+    @Override
+    public int size() {
+        synchronized (mutex) {
+            return queue.size();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        synchronized (mutex) {
+            return queue.isEmpty();
+        }
+    }
+
+    @Override
+    public boolean contains(E e) {
+        synchronized (mutex) {
+            return queue.contains(e);
+        }
+    }
+
+    @Override
+    public boolean offer(E e) {
+        synchronized (mutex) {
+            return queue.offer(e);
+        }
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        synchronized (mutex) {
+            return queue.addAll(c);
+        }
+    }
+
+    @Override
+    public boolean addAll(E[] array) {
+        synchronized (mutex) {
+            return queue.addAll(array);
+        }
+    }
+
+    @Override
+    public boolean addAll(Iterator<? extends E> iterator) {
+        synchronized (mutex) {
+            return queue.addAll(iterator);
+        }
+    }
+
+    @Override
+    public E peek() {
+        synchronized (mutex) {
+            return queue.peek();
+        }
+    }
+
+    @Override
+    public E poll() {
+        synchronized (mutex) {
+            return queue.poll();
+        }
+    }
+
+    @Override
+    public int pollBatch(int k, Consumer<? super E> action) {
+        synchronized (mutex) {
+            return queue.pollBatch(k, action);
+        }
+    }
+
+    @Override
+    public int indexOf(E e) {
+        synchronized (mutex) {
+            return queue.indexOf(e);
+        }
+    }
+
+    @Override
+    public E get(int index) {
+        synchronized (mutex) {
+            return queue.get(index);
+        }
+    }
+
+    @Override
+    public E remove(int index) {
+        synchronized (mutex) {
+            return queue.remove(index);
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (mutex) {
+            queue.clear();
+        }
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        synchronized (mutex) {
+            return queue.removeIf(filter);
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        synchronized (mutex) {
+            queue.forEach(action);
+        }
+    }
+
+    //  equal only to another wrapper around an equal queue, so that equals stays symmetric;
+    //  the two mutexes are locked in identity hash order so that a.equals(b) and b.equals(a)
+    //  running at the same time cannot deadlock
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SynchronizedHeapQueue<?> that = (SynchronizedHeapQueue<?>) o;
+        Object first = this.mutex;
+        Object second = that.mutex;
+        if (first == second) {
+            synchronized (first) {
+                return queue.equals(that.queue);
+            }
+        }
+        int h1 = System.identityHashCode(first);
+        int h2 = System.identityHashCode(second);
+        if (h1 > h2) {
+            first = that.mutex;
+            second = this.mutex;
+        }
+        if (h1 != h2) {
+            synchronized (first) {
+                synchronized (second) {
+                    return queue.equals(that.queue);
+                }
+            }
+        }
+        synchronized (TIE_LOCK) {
+            synchronized (first) {
+                synchronized (second) {
+                    return queue.equals(that.queue);
+                }
+            }
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        synchronized (mutex) {
+            return queue.hashCode();
+        }
+    }
+
+    @Override
+    public String toString() {
+        synchronized (mutex) {
+            return queue.toString();
+        }
+    }
+}
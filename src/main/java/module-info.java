@@ -4,10 +4,14 @@ module com.example.heap {
 
     requires net.synedra.validatorfx;
 
+    requires java.management;
+    requires jdk.jfr;
+
     opens com.example.heap to javafx.fxml;
     exports com.example.heap;
     exports com.example.heap.controller;
     exports com.example.heap.exception;
+    exports com.example.heap.core to java.management;
     opens com.example.heap.controller to javafx.fxml;
     opens com.example.heap.exception to javafx.fxml;
 }
\ No newline at end of file
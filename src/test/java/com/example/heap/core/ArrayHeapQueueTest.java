@@ -0,0 +1,255 @@
+package com.example.heap.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArrayHeapQueueTest {
+
+    static <E> List<E> drain(HeapQueue<E> queue) {
+        List<E> list = new ArrayList<>();
+        while (!queue.isEmpty()) {
+            list.add(queue.poll());
+        }
+        return list;
+    }
+
+    static <E> void assertHeap(HeapQueue<E> queue) {
+        Comparator<? super E> comparator = queue.comparator();
+        for (int i = 1; i < queue.size(); i++) {
+            E parent = queue.get(HeapQueue.parent(i));
+            assertTrue(comparator.compare(parent, queue.get(i)) <= 0, "heap order broken at " + i);
+        }
+    }
+
+    static List<Integer> randomList(int size, long seed) {
+        List<Integer> list = new ArrayList<>();
+        new Random(seed).ints(size, 0, size).forEach(list::add);
+        return list;
+    }
+
+    static List<Integer> sorted(List<Integer> list) {
+        List<Integer> copy = new ArrayList<>(list);
+        copy.sort(null);
+        return copy;
+    }
+
+    @Test
+    void pollsInComparatorOrder() {
+        List<Integer> values = new ArrayList<>();
+        new Random(1).ints(1000, 0, 100).forEach(values::add);
+        ArrayHeapQueue<Integer> queue = new ArrayHeapQueue<>(Comparator.naturalOrder());
+        values.forEach(queue::offer);
+        values.sort(null);
+        assertEquals(values, drain(queue));
+        assertNull(queue.poll());
+        assertNull(queue.peek());
+    }
+
+    //  the compaction used to write each kept element one slot past its destination
+    @Test
+    void removeIfCompactsKeptElements() {
+        ArrayHeapQueue<Integer> queue = new ArrayHeapQueue<>(Comparator.naturalOrder());
+        for (int i = 0; i < 10; i++) {
+            queue.offer(i);
+        }
+        assertTrue(queue.removeIf(e -> e % 3 == 0));
+        assertEquals(6, queue.size());
+        assertEquals(List.of(1, 2, 4, 5, 7, 8), drain(queue));
+    }
+
+    @Test
+    void bulkConstructors() {
+        List<Integer> values = randomList(1000, 2);
+        ArrayHeapQueue<Integer> fromCollection = new ArrayHeapQueue<>(Comparator.naturalOrder(), values);
+        ArrayHeapQueue<Integer> fromArray = new ArrayHeapQueue<>(Comparator.naturalOrder(),
+                values.toArray(new Integer[0]));
+        assertHeap(fromCollection);
+        assertEquals(fromCollection, fromArray);
+        assertEquals(values.size(), fromCollection.capacity());
+        assertEquals(sorted(values), drain(fromCollection));
+    }
+
+    //  a small batch is sifted up from the tail, a large one rebuilds the whole heap
+    @Test
+    void addAllSmallAndLargeBatches() {
+        List<Integer> values = randomList(1000, 3);
+        ArrayHeapQueue<Integer> queue = new ArrayHeapQueue<>(Comparator.naturalOrder(), values.subList(0, 900));
+        assertTrue(queue.addAll(values.subList(900, 910)));
+        assertHeap(queue);
+        assertTrue(queue.addAll(values.subList(910, 1000).toArray(new Integer[0])));
+        assertHeap(queue);
+        assertFalse(queue.addAll(List.of()));
+        assertEquals(sorted(values), drain(queue));
+
+        assertTrue(queue.addAll(values.iterator()));
+        assertHeap(queue);
+        assertEquals(sorted(values), drain(queue));
+    }
+
+    @Test
+    void bulkConstructorDoesNotKeepCallerArray() {
+        Integer[] array = {5, 3, 1};
+        ArrayHeapQueue<Integer> queue = new ArrayHeapQueue<>(Comparator.naturalOrder(), array);
+        assertEquals(List.of(5, 3, 1), Arrays.asList(array));
+        assertEquals(1, queue.peek());
+    }
+
+    //  of 1000 elements, 10 take the poll loop, 800 the select path and 1000 the full drain
+    @Test
+    void pollBatchTakesTheSmallestInOrder() {
+        List<Integer> values = randomList(1000, 6);
+        List<Integer> sorted = sorted(values);
+        for (int k : new int[]{10, 800, 1000, 1500}) {
+            ArrayHeapQueue<Integer> queue = new ArrayHeapQueue<>(Comparator.naturalOrder(), values);
+            List<Integer> batch = new ArrayList<>();
+            int n = queue.pollBatch(k, batch::add);
+            int expected = Math.min(k, values.size());
+            assertEquals(expected, n);
+            assertEquals(sorted.subList(0, expected), batch);
+            assertHeap(queue);
+            assertEquals(sorted.subList(expected, sorted.size()), drain(queue));
+        }
+    }
+
+    @Test
+    void pollBatchIntoArrayAndDrainTo() {
+        ArrayHeapQueue<Integer> queue = new ArrayHeapQueue<>(Comparator.naturalOrder(), randomList(100, 7));
+        Integer[] array = new Integer[5];
+        assertEquals(5, queue.pollBatch(10, array));
+        for (int i = 1; i < array.length; i++) {
+            assertTrue(array[i - 1] <= array[i]);
+        }
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(20, queue.drainTo(drained, 20));
+        assertTrue(array[4] <= drained.get(0));
+        assertEquals(75, queue.drainTo(drained));
+        assertTrue(queue.isEmpty());
+        assertEquals(sorted(drained), drained);
+        assertEquals(0, queue.pollBatch(0, drained::add));
+    }
+
+    @Test
+    void defaultPollBatchLoopsOverPoll() {
+        HeapQueue<Integer> queue = new DaryHeapQueue<>(Comparator.naturalOrder(), 4);
+        List<Integer> values = randomList(50, 8);
+        values.forEach(queue::offer);
+        List<Integer> batch = new ArrayList<>();
+        assertEquals(50, queue.pollBatch(60, batch::add));
+        assertEquals(sorted(values), batch);
+    }
+
+    @Test
+    void orderedIteratorDoesNotMutateTheQueue() {
+        List<Integer> list = randomList(1000, 11);
+        ArrayHeapQueue<Integer> queue = new ArrayHeapQueue<>(Comparator.naturalOrder(), list);
+        ArrayHeapQueue<Integer> copy = queue.clone();
+        List<Integer> ordered = new ArrayList<>();
+        queue.orderedIterator().forEachRemaining(ordered::add);
+        assertEquals(sorted(list), ordered);
+        assertEquals(copy, queue);
+        assertEquals(sorted(list).subList(0, 10), queue.orderedStream().limit(10).collect(Collectors.toList()));
+    }
+
+    @Test
+    void orderedIteratorOfEmptyQueue() {
+        Iterator<Integer> iterator = new ArrayHeapQueue<Integer>(Comparator.naturalOrder()).orderedIterator();
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    void orderedIteratorFailsAfterModification() {
+        ArrayHeapQueue<Integer> queue = new ArrayHeapQueue<>(Comparator.naturalOrder(), List.of(3, 1, 2));
+        Iterator<Integer> iterator = queue.orderedIterator();
+        assertEquals(1, iterator.next());
+        queue.offer(0);
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+
+        //  polls and offers that leave the array and the size as they were
+        ArrayHeapQueue<Integer> same = new ArrayHeapQueue<>(Comparator.naturalOrder());
+        for (int i = 1; i <= 40; i++) {
+            same.offer(i);
+        }
+        Iterator<Integer> sameSize = same.orderedIterator();
+        assertEquals(1, sameSize.next());
+        assertEquals(2, sameSize.next());
+        same.poll();
+        same.poll();
+        same.offer(100);
+        same.offer(-7);
+        assertThrows(ConcurrentModificationException.class, sameSize::next);
+
+        Spliterator<Integer> spliterator = same.orderedSpliterator();
+        assertTrue(spliterator.tryAdvance(e -> assertEquals(-7, e)));
+        same.remove(same.size() - 1);
+        same.offer(50);
+        assertThrows(ConcurrentModificationException.class, () -> spliterator.tryAdvance(e -> { }));
+
+        BoundedHeapQueue<Integer> bounded = new BoundedHeapQueue<>(Comparator.naturalOrder(), 3);
+        bounded.addAll(List.of(1, 2, 3));
+        Iterator<Integer> replaced = bounded.orderedIterator();
+        assertEquals(1, replaced.next());
+        assertEquals(1, bounded.offerOrReplaceTop(4));
+        assertThrows(ConcurrentModificationException.class, replaced::next);
+    }
+
+    @Test
+    void orderedSpliteratorIsSortedBySize() {
+        Comparator<Integer> comparator = Comparator.reverseOrder();
+        ArrayHeapQueue<Integer> queue = new ArrayHeapQueue<>(comparator, randomList(100, 12));
+        Spliterator<Integer> spliterator = queue.orderedSpliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED | Spliterator.SORTED | Spliterator.SIZED));
+        assertSame(comparator, spliterator.getComparator());
+        assertEquals(100, spliterator.estimateSize());
+        assertTrue(spliterator.tryAdvance(e -> assertEquals(queue.peek(), e)));
+        assertEquals(99, spliterator.estimateSize());
+        assertNull(spliterator.trySplit());
+    }
+
+    @Test
+    void streamsCoverTheHeapArray() {
+        List<Integer> list = randomList(10_000, 13);
+        ArrayHeapQueue<Integer> queue = new ArrayHeapQueue<>(Comparator.naturalOrder(), list);
+        List<Integer> heapOrder = new ArrayList<>();
+        queue.forEach(heapOrder::add);
+        assertEquals(heapOrder, queue.stream().collect(Collectors.toList()));
+        long sum = list.stream().mapToLong(Integer::longValue).sum();
+        assertEquals(sum, queue.parallelStream().mapToLong(Integer::longValue).sum());
+    }
+
+    //  above the parallel threshold, with the layout removeIf leaves
+    @Test
+    void parallelRemoveIfMatchesRemoveIf() {
+        List<Integer> list = randomList(200_000, 14);
+        ArrayHeapQueue<Integer> parallel = new ArrayHeapQueue<>(Comparator.naturalOrder(), list);
+        ArrayHeapQueue<Integer> sequential = parallel.clone();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertTrue(parallel.parallelRemoveIf(e -> e % 3 == 0, pool));
+            assertFalse(parallel.parallelRemoveIf(e -> e % 3 == 0, pool));
+        } finally {
+            pool.shutdown();
+        }
+        assertTrue(sequential.removeIf(e -> e % 3 == 0));
+        assertEquals(sequential, parallel);
+        assertHeap(parallel);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.heap.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockingHeapQueueTest {
+
+    private static BlockingHeapQueue<Integer> plain() {
+        return new BlockingHeapQueue<>(new ArrayHeapQueue<Integer>(Comparator.naturalOrder()));
+    }
+
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (thread.getState() != Thread.State.WAITING && thread.getState() != Thread.State.TIMED_WAITING) {
+            assertTrue(System.nanoTime() < deadline, "thread never blocked");
+            Thread.sleep(1);
+        }
+    }
+
+    private static Thread taker(BlockingHeapQueue<Integer> queue, BlockingQueue<Integer> taken) {
+        Thread thread = new Thread(() -> {
+            try {
+                taken.add(queue.take());
+            } catch (InterruptedException e) {
+                //  leaves without an element
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    @Test
+    void takeBlocksUntilOffer() throws Exception {
+        BlockingHeapQueue<Integer> queue = plain();
+        BlockingQueue<Integer> taken = new ArrayBlockingQueue<>(1);
+        Thread thread = taker(queue, taken);
+        awaitWaiting(thread);
+        queue.offer(7);
+        assertEquals(7, taken.poll(10, TimeUnit.SECONDS));
+        thread.join();
+    }
+
+    @Test
+    void timedPollReturnsNullWhenNothingArrives() throws Exception {
+        BlockingHeapQueue<Integer> queue = plain();
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+        queue.offer(3);
+        queue.offer(1);
+        assertEquals(1, queue.poll(0, TimeUnit.MILLISECONDS));
+        assertEquals(3, queue.poll());
+    }
+
+    //  an interrupted or timed-out waiter may have consumed the signal of an offer, the
+    //  remaining waiters must still see the element
+    @Test
+    void leavingWaiterDoesNotLoseWakeup() throws Exception {
+        for (int round = 0; round < 200; round++) {
+            BlockingHeapQueue<Integer> queue = plain();
+            BlockingQueue<Integer> taken = new ArrayBlockingQueue<>(2);
+            Thread interrupted = taker(queue, taken);
+            Thread timedOut = new Thread(() -> {
+                try {
+                    Integer e = queue.poll(1, TimeUnit.MILLISECONDS);
+                    if (e != null) {
+                        taken.add(e);
+                    }
+                } catch (InterruptedException e) {
+                    //  not interrupted
+                }
+            });
+            Thread waiter = taker(queue, taken);
+            awaitWaiting(interrupted);
+            awaitWaiting(waiter);
+            timedOut.start();
+            queue.offer(round);
+            interrupted.interrupt();
+            assertEquals(round, taken.poll(10, TimeUnit.SECONDS), "round " + round);
+            waiter.interrupt();
+            interrupted.join();
+            timedOut.join();
+            waiter.join();
+        }
+    }
+
+    @Test
+    void everyOfferReachesOneOfManyWaiters() throws Exception {
+        BlockingHeapQueue<Integer> queue = plain();
+        BlockingQueue<Integer> taken = new ArrayBlockingQueue<>(8);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(taker(queue, taken));
+        }
+        for (Thread thread : threads) {
+            awaitWaiting(thread);
+        }
+        queue.addAll(List.of(5, 3, 8, 1, 9, 2, 7, 4));
+        for (Thread thread : threads) {
+            thread.join(10_000);
+        }
+        assertEquals(8, taken.size());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void delayModeReleasesElementsAtTheirDeadline() throws Exception {
+        long start = System.nanoTime();
+        BlockingHeapQueue<Long> queue = new BlockingHeapQueue<>(
+                new ArrayHeapQueue<Long>(Comparator.naturalOrder()), Long::longValue);
+        long late = start + TimeUnit.MILLISECONDS.toNanos(60);
+        long early = start + TimeUnit.MILLISECONDS.toNanos(20);
+        queue.offer(late);
+        queue.offer(early);
+        assertNull(queue.poll());
+        assertEquals(0, queue.drainTo(new ArrayList<>()));
+        assertEquals(early, queue.take());
+        assertTrue(System.nanoTime() >= early);
+        Long next = queue.poll(10, TimeUnit.SECONDS);
+        assertNotNull(next);
+        assertEquals(late, next);
+        assertTrue(System.nanoTime() >= late);
+    }
+
+    @Test
+    void rejectsNulls() {
+        assertThrows(NullPointerException.class, () -> new BlockingHeapQueue<Integer>(null));
+        assertThrows(NullPointerException.class, () -> plain().offer(null));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.heap.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedHeapQueueTest {
+
+    private static List<Integer> greatest(List<Integer> values, int k) {
+        List<Integer> sorted = ArrayHeapQueueTest.sorted(values);
+        return sorted.subList(sorted.size() - k, sorted.size());
+    }
+
+    @Test
+    void keepsTheGreatestElements() {
+        List<Integer> values = ArrayHeapQueueTest.randomList(10_000, 11);
+        BoundedHeapQueue<Integer> queue = new BoundedHeapQueue<>(Comparator.naturalOrder(), 100);
+        values.forEach(queue::offer);
+        assertTrue(queue.isFull());
+        assertEquals(100, queue.size());
+        ArrayHeapQueueTest.assertHeap(queue);
+        assertEquals(greatest(values, 100), ArrayHeapQueueTest.drain(queue));
+    }
+
+    //  the bulk paths of ArrayHeapQueue would only add the first elements that fit
+    @Test
+    void addAllKeepsTheGreatestElements() {
+        List<Integer> values = ArrayHeapQueueTest.randomList(1000, 12);
+        BoundedHeapQueue<Integer> fromCollection = new BoundedHeapQueue<>(Comparator.naturalOrder(), 10);
+        assertTrue(fromCollection.addAll(values));
+        BoundedHeapQueue<Integer> fromArray = new BoundedHeapQueue<>(Comparator.naturalOrder(), 10);
+        assertTrue(fromArray.addAll(values.toArray(new Integer[0])));
+        assertEquals(fromCollection.size(), fromArray.size());
+        assertArrayEquals(fromCollection.toSortedArray(), fromArray.toSortedArray());
+        assertEquals(greatest(values, 10), Arrays.asList(fromCollection.toSortedArray(new Integer[0])));
+    }
+
+    @Test
+    void offerOrReplaceTopReportsWhatWasLeftOut() {
+        BoundedHeapQueue<Integer> queue = new BoundedHeapQueue<>(Comparator.naturalOrder(), 2);
+        assertNull(queue.offerOrReplaceTop(5));
+        assertNull(queue.offerOrReplaceTop(7));
+        Integer small = 3;
+        assertSame(small, queue.offerOrReplaceTop(small));
+        assertEquals(5, queue.offerOrReplaceTop(9));
+        assertFalse(queue.offer(6));
+        assertTrue(queue.offer(8));
+        assertEquals(List.of(8, 9), ArrayHeapQueueTest.drain(queue));
+    }
+
+    @Test
+    void boundSurvivesTrimToSize() {
+        BoundedHeapQueue<Integer> queue = new BoundedHeapQueue<>(Comparator.naturalOrder(), 8);
+        queue.offer(1);
+        queue.trimToSize();
+        assertEquals(8, queue.bound());
+        assertEquals(1, queue.capacity());
+        for (int i = 2; i <= 20; i++) {
+            queue.offer(i);
+        }
+        assertEquals(8, queue.size());
+        assertEquals(13, queue.peek());
+    }
+
+    @Test
+    void inheritedOperationsKeepHeapOrder() {
+        BoundedHeapQueue<Integer> queue = new BoundedHeapQueue<>(Comparator.naturalOrder(), 50);
+        ArrayHeapQueueTest.randomList(200, 13).forEach(queue::offer);
+        assertTrue(queue.removeIf(e -> e % 2 == 0));
+        ArrayHeapQueueTest.assertHeap(queue);
+        BoundedHeapQueue<Integer> clone = queue.clone();
+        assertEquals(queue, clone);
+        clone.poll();
+        assertFalse(queue.equals(clone));
+        assertFalse(queue.equals(new ArrayHeapQueue<>(Comparator.<Integer>naturalOrder())));
+    }
+
+    @Test
+    void rejectsNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedHeapQueue<Integer>(Comparator.naturalOrder(), 0));
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.heap.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CapacityPolicyTest {
+
+    private static final CapacityPolicy SHRINKING = CapacityPolicy.DEFAULT.withShrinkThreshold(0.25);
+
+    @Test
+    void growsAndShrinks() {
+        CapacityPolicy policy = SHRINKING.withMinCapacity(16);
+        assertEquals(20, policy.grow(10));
+        assertEquals(150, policy.grow(100));
+        assertEquals(250, policy.shrinkBelow(1000));
+        assertEquals(0, policy.shrinkBelow(16));
+        assertEquals(16, policy.shrink(2));
+        assertEquals(10, policy.withMaxCapacity(10).grow(8));
+        assertEquals(0, CapacityPolicy.DEFAULT.shrinkBelow(1000));
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> CapacityPolicy.DEFAULT.withGrowthFactor(1));
+        assertThrows(IllegalArgumentException.class, () -> CapacityPolicy.DEFAULT.withMaxCapacity(0));
+        assertThrows(IllegalArgumentException.class, () -> CapacityPolicy.DEFAULT.withOverflow(null));
+        assertThrows(IllegalArgumentException.class, () -> CapacityPolicy.DEFAULT.withShrinkThreshold(0.5));
+        assertThrows(IllegalArgumentException.class, () -> SHRINKING.withGrowthFactor(4));
+        assertThrows(IllegalArgumentException.class, () -> CapacityPolicy.DEFAULT.withMinCapacity(-1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ArrayHeapQueue<Integer>(Comparator.naturalOrder(), 11,
+                        CapacityPolicy.DEFAULT.withMaxCapacity(10)));
+    }
+
+    @Test
+    void policyConstructorsShrink() {
+        ArrayHeapQueue<Integer> sized = new ArrayHeapQueue<>(Comparator.naturalOrder(), 1000, SHRINKING);
+        for (int i = 0; i < 300; i++) {
+            sized.offer(i);
+        }
+        assertEquals(1000, sized.capacity());
+        while (sized.size() >= 250) {
+            sized.poll();
+        }
+        assertEquals(373, sized.capacity());
+
+        List<Integer> values = ArrayHeapQueueTest.randomList(1000, 31);
+        ArrayHeapQueue<Integer> adopted = new ArrayHeapQueue<>(Comparator.naturalOrder(), values, SHRINKING);
+        assertEquals(SHRINKING, adopted.capacityPolicy());
+        assertEquals(1000, adopted.capacity());
+        for (int i = 0; i < 751; i++) {
+            adopted.poll();
+        }
+        assertEquals(373, adopted.capacity());
+        assertEquals(ArrayHeapQueueTest.sorted(values).subList(751, 1000), ArrayHeapQueueTest.drain(adopted));
+    }
+
+    @Test
+    void removeAndBatchPollsShrink() {
+        List<Integer> values = ArrayHeapQueueTest.randomList(500, 32);
+        ArrayHeapQueue<Integer> removed = new ArrayHeapQueue<>(Comparator.naturalOrder(), 1000, SHRINKING);
+        removed.addAll(values);
+        while (removed.size() >= 250) {
+            removed.remove(removed.size() / 2);
+        }
+        assertEquals(373, removed.capacity());
+        ArrayHeapQueueTest.assertHeap(removed);
+
+        ArrayHeapQueue<Integer> polled = new ArrayHeapQueue<>(Comparator.naturalOrder(), 1000, SHRINKING);
+        polled.addAll(values);
+        List<Integer> sorted = ArrayHeapQueueTest.sorted(values);
+        List<Integer> batch = new ArrayList<>();
+        assertEquals(400, polled.pollBatch(400, batch::add));
+        assertEquals(sorted.subList(0, 400), batch);
+        assertEquals(150, polled.capacity());
+        assertEquals(sorted.subList(400, 500), ArrayHeapQueueTest.drain(polled));
+
+        ArrayHeapQueue<Integer> replayed = new ArrayHeapQueue<>(Comparator.naturalOrder(), 1000, SHRINKING);
+        replayed.addAll(values);
+        int[] indices = new int[300];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = i;
+        }
+        replayed.removeAll(indices, indices.length);
+        assertEquals(200, replayed.size());
+        assertEquals(300, replayed.capacity());
+        ArrayHeapQueueTest.assertHeap(replayed);
+    }
+
+    //  like addAll(Iterator), the array paths add the first elements up to the max capacity
+    @Test
+    void rejectingAddAllAddsWhatFits() {
+        CapacityPolicy policy = CapacityPolicy.DEFAULT.withMaxCapacity(10).withOverflow(CapacityPolicy.Overflow.REJECT);
+        List<Integer> values = List.of(14, 13, 12, 11, 10, 9, 8, 7, 6, 5, 4, 3, 2, 1, 0);
+
+        ArrayHeapQueue<Integer> empty = new ArrayHeapQueue<>(Comparator.naturalOrder(), policy);
+        assertTrue(empty.addAll(values));
+        assertEquals(values.subList(0, 10), reversed(ArrayHeapQueueTest.drain(empty)));
+
+        ArrayHeapQueue<Integer> partial = new ArrayHeapQueue<>(Comparator.naturalOrder(), policy);
+        partial.addAll(values.subList(0, 7));
+        assertTrue(partial.addAll(values.subList(7, 15).toArray(new Integer[0])));
+        assertEquals(10, partial.size());
+        ArrayHeapQueueTest.assertHeap(partial);
+        assertFalse(partial.addAll(values));
+        assertFalse(partial.offer(-1));
+        assertEquals(values.subList(0, 10), reversed(ArrayHeapQueueTest.drain(partial)));
+
+        ArrayHeapQueue<Integer> iterated = new ArrayHeapQueue<>(Comparator.naturalOrder(), policy);
+        assertTrue(iterated.addAll(values.iterator()));
+        assertEquals(10, iterated.size());
+    }
+
+    @Test
+    void throwingAddAllAddsNothing() {
+        CapacityPolicy policy = CapacityPolicy.DEFAULT.withMaxCapacity(10);
+        List<Integer> values = ArrayHeapQueueTest.randomList(15, 33);
+        ArrayHeapQueue<Integer> queue = new ArrayHeapQueue<>(Comparator.naturalOrder(), policy);
+        assertThrows(IllegalStateException.class, () -> queue.addAll(values));
+        assertTrue(queue.isEmpty());
+        queue.addAll(values.subList(0, 8));
+        assertThrows(IllegalStateException.class, () -> queue.addAll(values.subList(8, 15)));
+        assertEquals(8, queue.size());
+        assertTrue(queue.addAll(values.subList(8, 10)));
+        assertThrows(IllegalStateException.class, () -> queue.offer(0));
+        assertEquals(10, queue.size());
+    }
+
+    private static List<Integer> reversed(List<Integer> list) {
+        List<Integer> copy = new ArrayList<>(list);
+        Collections.reverse(copy);
+        return copy;
+    }
+}
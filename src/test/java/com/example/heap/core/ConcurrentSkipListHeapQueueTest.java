@@ -0,0 +1,74 @@
+package com.example.heap.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentSkipListHeapQueueTest {
+
+    @Test
+    void keepsElementsSortedAndEqualOnesInInsertionOrder() {
+        ConcurrentSkipListHeapQueue<String> queue =
+                new ConcurrentSkipListHeapQueue<>(Comparator.comparingInt(String::length));
+        for (String s : List.of("ccc", "a", "bb", "x", "yy", "z")) {
+            queue.offer(s);
+        }
+        assertEquals("[a, x, z, bb, yy, ccc]", queue.toString());
+        assertEquals(3, queue.indexOf("bb"));
+        assertEquals("bb", queue.remove(3));
+        assertTrue(queue.removeIf("x"::equals));
+        assertEquals(List.of("a", "z", "yy", "ccc"), ArrayHeapQueueTest.drain(queue));
+        assertNull(queue.poll());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void rejectsNulls() {
+        assertThrows(NullPointerException.class, () -> new ConcurrentSkipListHeapQueue<Integer>(null));
+        ConcurrentSkipListHeapQueue<Integer> queue = new ConcurrentSkipListHeapQueue<>(Comparator.naturalOrder());
+        assertThrows(NullPointerException.class, () -> queue.offer(null));
+        assertThrows(IndexOutOfBoundsException.class, () -> queue.get(0));
+    }
+
+    @Test
+    void concurrentProducersAndConsumersSeeEveryElementOnce() throws Exception {
+        ConcurrentSkipListHeapQueue<Integer> queue = new ConcurrentSkipListHeapQueue<>(Comparator.naturalOrder());
+        ConcurrentLinkedQueue<Integer> polled = new ConcurrentLinkedQueue<>();
+        int producers = 3;
+        int perProducer = 5_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < producers; t++) {
+            int base = t * perProducer;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    queue.offer(base + i);
+                }
+            }));
+        }
+        for (int t = 0; t < 2; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    Integer e = queue.poll();
+                    if (e != null) {
+                        polled.add(e);
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(producers * perProducer, polled.size() + queue.size());
+        queue.forEach(polled::add);
+        assertEquals(producers * perProducer, polled.stream().distinct().count());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.heap.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DaryHeapQueueTest {
+
+    private static void assertDaryHeap(DaryHeapQueue<Integer> queue) {
+        int arity = queue.arity();
+        for (int i = 1; i < queue.size(); i++) {
+            Integer parent = queue.get(DaryHeapQueue.parent(i, arity));
+            assertTrue(parent <= queue.get(i), "heap order broken at " + i);
+        }
+    }
+
+    @Test
+    void pollsInOrderForEveryArity() {
+        List<Integer> values = ArrayHeapQueueTest.randomList(2000, 4);
+        for (int arity = 2; arity <= 16; arity <<= 1) {
+            DaryHeapQueue<Integer> queue = new DaryHeapQueue<>(Comparator.naturalOrder(), arity);
+            values.forEach(queue::offer);
+            assertDaryHeap(queue);
+            assertEquals(ArrayHeapQueueTest.sorted(values), ArrayHeapQueueTest.drain(queue), "arity " + arity);
+        }
+    }
+
+    @Test
+    void removeAndRemoveIfKeepHeapOrder() {
+        List<Integer> values = ArrayHeapQueueTest.randomList(500, 5);
+        DaryHeapQueue<Integer> queue = new DaryHeapQueue<>(Comparator.naturalOrder(), 4, 500);
+        values.forEach(queue::offer);
+        for (int i = 0; i < 50; i++) {
+            queue.remove(queue.size() / 3);
+            assertDaryHeap(queue);
+        }
+        queue.removeIf(e -> e % 2 == 0);
+        assertDaryHeap(queue);
+        queue.forEach(e -> assertTrue(e % 2 != 0));
+    }
+
+    @Test
+    void rejectsArityThatIsNotAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new DaryHeapQueue<Integer>(Comparator.naturalOrder(), 3));
+        assertThrows(IllegalArgumentException.class, () -> new DaryHeapQueue<Integer>(Comparator.naturalOrder(), 1));
+    }
+
+    @Test
+    void childrenOfANodeAreConsecutive() {
+        assertEquals(1, DaryHeapQueue.child(0, 4));
+        assertEquals(5, DaryHeapQueue.child(1, 4));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(0, DaryHeapQueue.parent(i, 4));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.heap.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DoubleArrayHeapQueueTest {
+
+    private static double[] drain(DoubleArrayHeapQueue queue) {
+        double[] array = new double[queue.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = queue.poll();
+        }
+        return array;
+    }
+
+    @Test
+    void pollsInComparatorOrder() {
+        double[] values = new Random(1).doubles(1000).toArray();
+        DoubleArrayHeapQueue queue = new DoubleArrayHeapQueue();
+        for (double value : values) {
+            queue.offer(value);
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        assertArrayEquals(sorted, drain(queue));
+    }
+
+    @Test
+    void naturalOrderPutsNaNLast() {
+        DoubleArrayHeapQueue queue = new DoubleArrayHeapQueue(DoubleComparator.naturalOrder(),
+                new double[]{Double.NaN, 0.0, -0.0, -1.5});
+        assertArrayEquals(new double[]{-1.5, -0.0, 0.0, Double.NaN}, drain(queue));
+    }
+
+    @Test
+    void emptyQueueThrows() {
+        DoubleArrayHeapQueue queue = new DoubleArrayHeapQueue();
+        assertThrows(NoSuchElementException.class, queue::peek);
+        assertThrows(NoSuchElementException.class, queue::poll);
+    }
+
+    @Test
+    void removeIfKeepsRemainingElements() {
+        DoubleArrayHeapQueue queue = new DoubleArrayHeapQueue(DoubleComparator.naturalOrder(),
+                new double[]{0.5, 2.5, 1.5, 3.5});
+        assertTrue(queue.removeIf(e -> e > 2));
+        assertEquals(2, queue.size());
+        assertArrayEquals(new double[]{0.5, 1.5}, drain(queue));
+    }
+}
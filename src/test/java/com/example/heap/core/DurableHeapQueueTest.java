@@ -0,0 +1,97 @@
+package com.example.heap.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DurableHeapQueueTest {
+
+    //  natural order that refuses to compare negative elements
+    private static final Comparator<Integer> NON_NEGATIVE = (a, b) -> {
+        if (a < 0 || b < 0) {
+            throw new IllegalArgumentException("negative element");
+        }
+        return Integer.compare(a, b);
+    };
+
+    @TempDir
+    Path dir;
+
+    private DurableHeapQueue<Integer> open(Comparator<Integer> comparator, int compactionBytes) throws IOException {
+        return new DurableHeapQueue<>(dir, comparator, ElementCodec.integers(), SyncPolicy.perOperation(),
+                compactionBytes);
+    }
+
+    @Test
+    void reopenRestoresOperations() throws IOException {
+        List<Integer> list = ArrayHeapQueueTest.randomList(500, 1);
+        List<Integer> expected;
+        try (DurableHeapQueue<Integer> queue = open(Comparator.naturalOrder(), 1 << 20)) {
+            for (Integer e : list) {
+                queue.offer(e);
+            }
+            queue.poll();
+            queue.remove(7);
+            assertTrue(queue.removeIf(e -> e % 3 == 0));
+            expected = new ArrayList<>();
+            queue.forEach(expected::add);
+        }
+        try (DurableHeapQueue<Integer> queue = open(Comparator.naturalOrder(), 1 << 20)) {
+            List<Integer> restored = new ArrayList<>();
+            queue.forEach(restored::add);
+            assertEquals(expected, restored);
+        }
+    }
+
+    @Test
+    void replaySkipsRejectedOffer() throws IOException {
+        try (DurableHeapQueue<Integer> queue = open(NON_NEGATIVE, 1 << 20)) {
+            queue.offer(2);
+            queue.offer(1);
+            assertThrows(IllegalArgumentException.class, () -> queue.offer(-1));
+            assertEquals(2, queue.size());
+            queue.offer(3);
+        }
+        try (DurableHeapQueue<Integer> queue = open(NON_NEGATIVE, 1 << 20)) {
+            assertEquals(List.of(1, 2, 3), ArrayHeapQueueTest.drain(queue));
+        }
+    }
+
+    @Test
+    void failedCompactionDoesNotFailTheOperation() throws IOException {
+        //  a non-empty directory in the way of the snapshot's temporary file
+        Path blocker = dir.resolve("queue.1.snapshot" + HeapSnapshot.TEMPORARY);
+        try (DurableHeapQueue<Integer> queue = open(Comparator.naturalOrder(), 64)) {
+            Files.createDirectory(blocker);
+            Files.createFile(blocker.resolve("file"));
+            for (int i = 0; i < 10; i++) {
+                queue.offer(i);
+            }
+            assertEquals(10, queue.size());
+            assertNotNull(queue.compactionFailure());
+            Files.delete(blocker.resolve("file"));
+            Files.delete(blocker);
+            for (int i = 10; i < 20; i++) {
+                queue.offer(i);
+            }
+            assertNull(queue.compactionFailure());
+            assertTrue(Files.notExists(dir.resolve("queue.0.log")));
+        }
+        try (DurableHeapQueue<Integer> queue = open(Comparator.naturalOrder(), 64)) {
+            assertEquals(20, queue.size());
+            assertEquals(0, queue.peek());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.heap.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExternalHeapQueueTest {
+
+    @TempDir
+    Path dir;
+
+    private static List<Integer> drain(ExternalHeapQueue<Integer> queue) {
+        List<Integer> list = new ArrayList<>();
+        Integer e;
+        while ((e = queue.poll()) != null) {
+            list.add(e);
+        }
+        return list;
+    }
+
+    private long fileCount() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void pollsInComparatorOrderAcrossRuns() throws IOException {
+        List<Integer> list = ArrayHeapQueueTest.randomList(10_000, 1);
+        try (ExternalHeapQueue<Integer> queue = new ExternalHeapQueue<>(Comparator.naturalOrder(),
+                ElementCodec.integers(), 100, dir)) {
+            for (Integer e : list) {
+                queue.offer(e);
+            }
+            assertEquals(list.size(), queue.size());
+            assertTrue(queue.runCount() > 1);
+            assertEquals(ArrayHeapQueueTest.sorted(list), drain(queue));
+            assertTrue(queue.isEmpty());
+        }
+        assertEquals(0, fileCount());
+    }
+
+    @Test
+    void mergesKeepTheRewritesLogarithmic() throws IOException {
+        int memoryBudget = 16;
+        int spills = 4000;
+        List<Integer> list = ArrayHeapQueueTest.randomList(memoryBudget * spills, 2);
+        try (ExternalHeapQueue<Integer> queue = new ExternalHeapQueue<>(Comparator.naturalOrder(),
+                ElementCodec.integers(), memoryBudget, dir)) {
+            for (Integer e : list) {
+                queue.offer(e);
+            }
+            assertTrue(queue.runCount() <= 65);
+            //  one spill plus log(4000) / log(32), about 2.4, merges per element; merging
+            //  every run whenever there are too many rewrote each element about 30 times
+            assertTrue(queue.writtenElements() <= 4L * list.size(), () -> "written: " + queue.writtenElements());
+            assertEquals(ArrayHeapQueueTest.sorted(list), drain(queue));
+        }
+    }
+
+    @Test
+    void failedRunReadKeepsSize() throws IOException {
+        ElementCodec<Integer> failing = new ElementCodec<>() {
+            @Override
+            public void encode(Integer e, DataOutput out) throws IOException {
+                out.writeInt(e);
+            }
+
+            @Override
+            public Integer decode(DataInput in) throws IOException {
+                int e = in.readInt();
+                if (e == 2) {
+                    throw new IOException("bad sector");
+                }
+                return e;
+            }
+        };
+        try (ExternalHeapQueue<Integer> queue = new ExternalHeapQueue<>(Comparator.naturalOrder(), failing, 3, dir)) {
+            for (int e : new int[]{1, 2, 3, 10, 11, 12}) {
+                queue.offer(e);
+            }
+            assertEquals(6, queue.size());
+            assertThrows(UncheckedIOException.class, queue::poll);
+            assertEquals(6, queue.size());
+            assertEquals(1, queue.peek());
+        }
+    }
+
+    @Test
+    void emptyQueuePollsNull() throws IOException {
+        try (ExternalHeapQueue<Integer> queue = new ExternalHeapQueue<>(Comparator.naturalOrder(),
+                ElementCodec.integers(), 4, dir)) {
+            assertNull(queue.peek());
+            assertNull(queue.poll());
+            assertEquals(0, queue.size());
+        }
+    }
+}
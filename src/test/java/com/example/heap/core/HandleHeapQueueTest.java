@@ -0,0 +1,66 @@
+package com.example.heap.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HandleHeapQueueTest {
+
+    @Test
+    void updateMovesElementBothWays() {
+        HandleHeapQueue<Integer> queue = new HandleHeapQueue<>(Comparator.naturalOrder());
+        List<HeapHandle<Integer>> handles = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            handles.add(queue.insert(i * 10));
+        }
+        handles.get(15).update(-1);
+        assertEquals(-1, queue.peek());
+        handles.get(15).update(1000);
+        assertEquals(0, queue.peek());
+        handles.get(0).update(55);
+        ArrayHeapQueueTest.assertHeap(queue);
+        for (int i = 0; i < queue.size(); i++) {
+            assertSame(queue.get(i), queue.handle(i).get());
+        }
+        assertEquals(10, queue.poll());
+    }
+
+    @Test
+    void handlesAreInvalidatedOnRemoval() {
+        HandleHeapQueue<String> queue = new HandleHeapQueue<>(Comparator.naturalOrder());
+        HeapHandle<String> a = queue.insert("a");
+        HeapHandle<String> b = queue.insert("b");
+        HeapHandle<String> c = queue.insert("c");
+        assertEquals("a", queue.poll());
+        assertFalse(a.isValid());
+        assertFalse(a.remove());
+        assertThrows(IllegalStateException.class, () -> a.update("z"));
+
+        assertTrue(c.remove());
+        assertFalse(c.isValid());
+        assertTrue(b.isValid());
+        assertEquals(1, queue.size());
+
+        queue.removeIf("b"::equals);
+        assertFalse(b.isValid());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void clearInvalidatesEveryHandle() {
+        HandleHeapQueue<Integer> queue = new HandleHeapQueue<>(Comparator.naturalOrder());
+        HeapHandle<Integer> first = queue.insert(1);
+        HeapHandle<Integer> second = queue.insert(2);
+        queue.clear();
+        assertFalse(first.isValid());
+        assertFalse(second.isValid());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.heap.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//  runs in the metrics execution of surefire, with -Dcom.example.heap.metrics=true
+class HeapMetricsTest {
+
+    @Test
+    void parallelRemoveIfIsRecorded() {
+        assertTrue(HeapMetrics.ENABLED);
+        ArrayHeapQueue<Integer> queue = new ArrayHeapQueue<>(Comparator.naturalOrder(),
+                ArrayHeapQueueTest.randomList(100_000, 1));
+        queue.parallelRemoveIf(e -> e % 2 == 0);
+        queue.parallelRemoveIf(e -> e % 2 == 0);
+        HeapMetrics.Snapshot snapshot = queue.metrics().snapshot();
+        assertEquals(2, snapshot.count(HeapMetrics.Operation.REMOVE_IF));
+        assertEquals(2, snapshot.heapifies());
+    }
+
+    //  descending offers climb to the root, so offer i moves floor(log2(i + 1)) levels
+    @Test
+    void siftsCountLevelsAndComparisons() {
+        ArrayHeapQueue<Integer> queue = new ArrayHeapQueue<>(Comparator.naturalOrder());
+        int n = 100;
+        long levels = 0;
+        for (int i = 0; i < n; i++) {
+            queue.offer(n - i);
+            levels += 31 - Integer.numberOfLeadingZeros(i + 1);
+        }
+        HeapMetrics.Snapshot snapshot = queue.metrics().snapshot();
+        assertEquals(n, snapshot.count(HeapMetrics.Operation.OFFER));
+        assertEquals(n, snapshot.sifts());
+        assertEquals(levels, snapshot.siftLevels());
+        //  a sift that reaches the root does not compare with a parent of the root
+        assertEquals(levels, snapshot.comparisons());
+        assertEquals(levels + n, snapshot.writes() - snapshot.copiedElements());
+        long[] depths = snapshot.siftDepthHistogram();
+        long sifts = 0;
+        for (long count : depths) {
+            sifts += count;
+        }
+        assertEquals(n, sifts);
+        assertEquals(1, depths[0]);
+    }
+
+    @Test
+    void resizesCountCopiedElements() {
+        ArrayHeapQueue<Integer> queue = new ArrayHeapQueue<>(Comparator.naturalOrder());
+        long copied = 0;
+        int capacity = queue.capacity();
+        int resizes = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (i + 1 >= capacity) {
+                copied += i;
+                resizes++;
+            }
+            queue.offer(i);
+            capacity = queue.capacity();
+        }
+        HeapMetrics.Snapshot snapshot = queue.metrics().snapshot();
+        assertEquals(resizes, snapshot.resizes());
+        assertEquals(copied, snapshot.copiedElements());
+    }
+
+    //  a batch into an empty queue allocates through resize like any other growth
+    @Test
+    void addAllToEmptyQueueCountsTheResize() {
+        ArrayHeapQueue<Integer> queue = new ArrayHeapQueue<>(Comparator.naturalOrder());
+        queue.addAll(ArrayHeapQueueTest.randomList(100, 3));
+        assertEquals(100, queue.capacity());
+        assertEquals(1, queue.growthCount());
+        HeapMetrics.Snapshot snapshot = queue.metrics().snapshot();
+        assertEquals(1, snapshot.resizes());
+        assertEquals(0, snapshot.copiedElements());
+    }
+
+    @Test
+    void latenciesResetAndClones() {
+        ArrayHeapQueue<Integer> queue = new ArrayHeapQueue<>(Comparator.naturalOrder(),
+                ArrayHeapQueueTest.randomList(1000, 2));
+        ArrayHeapQueueTest.drain(queue);
+        queue.offer(1);
+        queue.remove(0);
+        HeapMetrics.Snapshot snapshot = queue.metrics().snapshot();
+        assertEquals(1000, snapshot.count(HeapMetrics.Operation.POLL));
+        assertEquals(1, snapshot.count(HeapMetrics.Operation.REMOVE));
+        long median = snapshot.latencyPercentile(HeapMetrics.Operation.POLL, 0.5);
+        assertTrue(median > 0);
+        assertTrue(snapshot.latencyPercentile(HeapMetrics.Operation.POLL, 1) >= median);
+        assertEquals(0, snapshot.latencyPercentile(HeapMetrics.Operation.REMOVE_IF, 0.5));
+        assertThrows(IllegalArgumentException.class,
+                () -> snapshot.latencyPercentile(HeapMetrics.Operation.POLL, 1.5));
+
+        ArrayHeapQueue<Integer> clone = queue.clone();
+        assertNotSame(queue.metrics(), clone.metrics());
+        assertEquals(0, clone.metrics().snapshot().count(HeapMetrics.Operation.POLL));
+        queue.metrics().reset();
+        HeapMetrics.Snapshot reset = queue.metrics().snapshot();
+        assertEquals(0, reset.count(HeapMetrics.Operation.POLL));
+        assertEquals(0, reset.sifts());
+        assertEquals(0, reset.heapifies());
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.heap.core;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.management.MBeanServer;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeapQueueMonitorTest {
+
+    @Test
+    void exposesTheQueueAndUnregistersOnClose() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ArrayHeapQueue<Integer> queue = new ArrayHeapQueue<>(Comparator.naturalOrder(), List.of(3, 1, 2));
+        HeapQueueMonitor monitor = HeapQueueMonitor.register("monitored", queue);
+        try {
+            assertTrue(server.isRegistered(monitor.objectName()));
+            assertEquals(3, server.getAttribute(monitor.objectName(), "Size"));
+            assertEquals(queue.capacity(), server.getAttribute(monitor.objectName(), "Capacity"));
+            assertEquals(-1L, server.getAttribute(monitor.objectName(), "OfferCount"));
+            assertTrue(Double.isNaN(monitor.getPollRate()));
+            assertEquals("monitored", queue.name);
+            assertThrows(IllegalArgumentException.class,
+                    () -> HeapQueueMonitor.register("monitored", new ArrayHeapQueue<>(Comparator.<Integer>naturalOrder())));
+        } finally {
+            monitor.close();
+        }
+        assertFalse(server.isRegistered(monitor.objectName()));
+        assertNull(queue.name);
+        monitor.close();
+        HeapQueueMonitor.register("monitored", queue).close();
+    }
+
+    //  without -Dcom.example.heap.siftEvents=true no Sift is created even when the
+    //  recording enables it, the other events carry the monitor's name
+    @Test
+    void eventsAreTaggedAndSiftsStayOff(@TempDir Path dir) throws IOException {
+        assertFalse(HeapQueueEvents.SIFT_ENABLED);
+        ArrayHeapQueue<Integer> queue = new ArrayHeapQueue<>(Comparator.naturalOrder());
+        Path file = dir.resolve("heap.jfr");
+        try (Recording recording = new Recording();
+             HeapQueueMonitor monitor = HeapQueueMonitor.register("recorded", queue)) {
+            recording.enable("com.example.heap.Resize");
+            recording.enable("com.example.heap.Sift").withoutThreshold();
+            recording.start();
+            for (int i = 0; i < 100; i++) {
+                queue.offer(i);
+            }
+            ArrayHeapQueueTest.drain(queue);
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("com.example.heap.Resize")
+                && "recorded".equals(e.getString("queue"))));
+        assertTrue(events.stream().noneMatch(e -> e.getEventType().getName().equals("com.example.heap.Sift")));
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.heap.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HeapSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    //  overwrites the size field of the header
+    private static void corruptSize(Path file, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(size).flip();
+            channel.write(buffer, 8);
+        }
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    void objectRoundTrip() throws IOException {
+        List<Integer> list = ArrayHeapQueueTest.randomList(1000, 1);
+        ArrayHeapQueue<Integer> queue = new ArrayHeapQueue<>(Comparator.naturalOrder(), list);
+        Path file = dir.resolve("heap");
+        HeapSnapshot.write(queue, ElementCodec.integers(), file);
+        ArrayHeapQueue<Integer> restored = HeapSnapshot.readArrayHeapQueue(file, Comparator.naturalOrder(),
+                ElementCodec.integers());
+        assertEquals(queue, restored);
+        assertEquals(ArrayHeapQueueTest.sorted(list), ArrayHeapQueueTest.drain(restored));
+        assertEquals(List.of(file), files());
+    }
+
+    @Test
+    void primitiveRoundTrips() throws IOException {
+        int[] ints = new Random(1).ints(300_000).toArray();
+        Path intFile = dir.resolve("ints");
+        HeapSnapshot.write(new IntArrayHeapQueue(IntComparator.naturalOrder(), ints), intFile);
+        IntArrayHeapQueue intQueue = HeapSnapshot.readIntHeapQueue(intFile, IntComparator.naturalOrder());
+        int[] sortedInts = ints.clone();
+        Arrays.sort(sortedInts);
+        for (int value : sortedInts) {
+            assertEquals(value, intQueue.poll());
+        }
+
+        long[] longs = new Random(2).longs(1000).toArray();
+        Path longFile = dir.resolve("longs");
+        HeapSnapshot.write(new LongArrayHeapQueue(LongComparator.naturalOrder(), longs), longFile);
+        LongArrayHeapQueue longQueue = HeapSnapshot.readLongHeapQueue(longFile, LongComparator.naturalOrder());
+        long[] sortedLongs = longs.clone();
+        Arrays.sort(sortedLongs);
+        for (long value : sortedLongs) {
+            assertEquals(value, longQueue.poll());
+        }
+
+        Path doubleFile = dir.resolve("doubles");
+        HeapSnapshot.write(new DoubleArrayHeapQueue(), doubleFile);
+        assertEquals(0, HeapSnapshot.readDoubleHeapQueue(doubleFile, DoubleComparator.naturalOrder()).size());
+    }
+
+    @Test
+    void failedWriteKeepsPreviousSnapshot() throws IOException {
+        Path file = dir.resolve("heap");
+        HeapSnapshot.write(new ArrayHeapQueue<>(Comparator.naturalOrder(), List.of(1, 2, 3)),
+                ElementCodec.integers(), file);
+        byte[] previous = Files.readAllBytes(file);
+        ElementCodec<Integer> failing = new ElementCodec<>() {
+            @Override
+            public void encode(Integer e, DataOutput out) throws IOException {
+                if (e == 40) {
+                    throw new IOException("disk full");
+                }
+                out.writeInt(e);
+            }
+
+            @Override
+            public Integer decode(DataInput in) throws IOException {
+                return in.readInt();
+            }
+        };
+        ArrayHeapQueue<Integer> queue = new ArrayHeapQueue<>(Comparator.naturalOrder(),
+                ArrayHeapQueueTest.randomList(100, 2));
+        assertThrows(IOException.class, () -> HeapSnapshot.write(queue, failing, file));
+        assertArrayEquals(previous, Files.readAllBytes(file));
+        assertEquals(List.of(file), files());
+    }
+
+    //  the snapshot directory has to open as a channel for the rename to be forced
+    @Test
+    void writeForcesTheDirectory() throws IOException {
+        Path nested = Files.createDirectory(dir.resolve("nested"));
+        HeapSnapshot.write(new ArrayHeapQueue<>(Comparator.naturalOrder(), List.of(1, 2, 3)),
+                ElementCodec.integers(), nested.resolve("heap"));
+        HeapSnapshot.forceDirectory(nested);
+        assertEquals(List.of(1, 2, 3), ArrayHeapQueueTest.drain(
+                HeapSnapshot.readArrayHeapQueue(nested.resolve("heap"), Comparator.naturalOrder(), ElementCodec.integers())));
+    }
+
+    @Test
+    void corruptedSizeIsRejectedBeforeAllocating() throws IOException {
+        Path intFile = dir.resolve("ints");
+        HeapSnapshot.write(new IntArrayHeapQueue(IntComparator.naturalOrder(), new int[]{3, 1, 2}), intFile);
+        corruptSize(intFile, Integer.MAX_VALUE);
+        assertThrows(IOException.class, () -> HeapSnapshot.readIntHeapQueue(intFile, IntComparator.naturalOrder()));
+        corruptSize(intFile, 2);
+        assertThrows(IOException.class, () -> HeapSnapshot.readIntHeapQueue(intFile, IntComparator.naturalOrder()));
+
+        Path objectFile = dir.resolve("objects");
+        HeapSnapshot.write(new ArrayHeapQueue<>(Comparator.naturalOrder(), List.of(3, 1, 2)),
+                ElementCodec.integers(), objectFile);
+        corruptSize(objectFile, Integer.MAX_VALUE);
+        assertThrows(IOException.class, () -> HeapSnapshot.readArrayHeapQueue(objectFile,
+                Comparator.<Integer>naturalOrder(), ElementCodec.integers()));
+    }
+}
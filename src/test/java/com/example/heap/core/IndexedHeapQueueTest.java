@@ -0,0 +1,111 @@
+package com.example.heap.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexedHeapQueueTest {
+
+    //  equal by name, ordered by a priority that changes while queued
+    static final class Task {
+
+        final String name;
+
+        int priority;
+
+        Task(String name, int priority) {
+            this.name = name;
+            this.priority = priority;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Task && ((Task) o).name.equals(name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static final Comparator<Task> BY_PRIORITY = Comparator.comparingInt(t -> t.priority);
+
+    private static IndexedHeapQueue<Task> queue(Task... tasks) {
+        IndexedHeapQueue<Task> queue = new IndexedHeapQueue<>(BY_PRIORITY);
+        for (Task task : tasks) {
+            assertTrue(queue.offer(task));
+        }
+        return queue;
+    }
+
+    private static void assertIndexes(IndexedHeapQueue<Task> queue) {
+        for (int i = 0; i < queue.size(); i++) {
+            assertEquals(i, queue.indexOf(queue.get(i)));
+        }
+        ArrayHeapQueueTest.assertHeap(queue);
+    }
+
+    @Test
+    void rejectsDuplicates() {
+        IndexedHeapQueue<Task> queue = queue(new Task("a", 1));
+        assertFalse(queue.offer(new Task("a", 5)));
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    void decreaseAndIncreaseKey() {
+        Task a = new Task("a", 10);
+        Task b = new Task("b", 20);
+        Task c = new Task("c", 30);
+        IndexedHeapQueue<Task> queue = queue(a, b, c, new Task("d", 40), new Task("e", 50));
+        c.priority = 1;
+        assertTrue(queue.decreaseKey(c));
+        assertSame(c, queue.peek());
+        assertIndexes(queue);
+        c.priority = 100;
+        assertTrue(queue.increaseKey(c));
+        assertSame(a, queue.peek());
+        assertIndexes(queue);
+        assertFalse(queue.update(new Task("x", 0)));
+        assertEquals(List.of("a", "b", "d", "e", "c"), names(queue));
+    }
+
+    @Test
+    void removeByElementAndPredicate() {
+        IndexedHeapQueue<Task> queue = queue(new Task("a", 3), new Task("b", 1), new Task("c", 2),
+                new Task("d", 5), new Task("e", 4));
+        assertTrue(queue.remove(new Task("c", 0)));
+        assertFalse(queue.remove(new Task("c", 0)));
+        assertFalse(queue.contains(new Task("c", 0)));
+        assertIndexes(queue);
+        assertTrue(queue.removeIf(t -> t.priority > 4));
+        assertFalse(queue.contains(new Task("d", 0)));
+        assertEquals(-1, queue.indexOf(new Task("d", 0)));
+        assertIndexes(queue);
+        assertEquals(List.of("b", "a", "e"), names(queue));
+    }
+
+    private static List<String> names(IndexedHeapQueue<Task> queue) {
+        List<String> names = new ArrayList<>();
+        while (!queue.isEmpty()) {
+            Task task = queue.poll();
+            assertFalse(queue.contains(task));
+            names.add(task.name);
+        }
+        return names;
+    }
+}
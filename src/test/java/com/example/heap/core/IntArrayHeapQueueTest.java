@@ -0,0 +1,90 @@
+package com.example.heap.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntArrayHeapQueueTest {
+
+    private static int[] drain(IntArrayHeapQueue queue) {
+        int[] array = new int[queue.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = queue.poll();
+        }
+        return array;
+    }
+
+    @Test
+    void pollsInComparatorOrder() {
+        int[] values = new Random(1).ints(1000, -500, 500).toArray();
+        IntArrayHeapQueue queue = new IntArrayHeapQueue();
+        for (int value : values) {
+            queue.offer(value);
+        }
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        assertArrayEquals(sorted, drain(queue));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void reversedComparator() {
+        IntArrayHeapQueue queue = new IntArrayHeapQueue(IntComparator.reverseOrder(), new int[]{3, 1, 4, 1, 5});
+        assertArrayEquals(new int[]{5, 4, 3, 1, 1}, drain(queue));
+    }
+
+    @Test
+    void emptyQueueThrows() {
+        IntArrayHeapQueue queue = new IntArrayHeapQueue();
+        assertThrows(NoSuchElementException.class, queue::peek);
+        assertThrows(NoSuchElementException.class, queue::poll);
+        assertThrows(IndexOutOfBoundsException.class, () -> queue.get(0));
+    }
+
+    @Test
+    void removeKeepsHeapOrder() {
+        IntArrayHeapQueue queue = new IntArrayHeapQueue(IntComparator.naturalOrder(), new int[]{9, 2, 7, 4, 5, 1, 8});
+        assertEquals(7, queue.remove(queue.indexOf(7)));
+        assertFalse(queue.contains(7));
+        assertArrayEquals(new int[]{1, 2, 4, 5, 8, 9}, drain(queue));
+    }
+
+    @Test
+    void removeIfKeepsRemainingElements() {
+        IntArrayHeapQueue queue = new IntArrayHeapQueue(IntComparator.naturalOrder(), new int[]{6, 3, 8, 1, 9, 2});
+        assertTrue(queue.removeIf(e -> e % 2 == 0));
+        assertFalse(queue.removeIf(e -> e > 100));
+        assertArrayEquals(new int[]{1, 3, 9}, drain(queue));
+    }
+
+    @Test
+    void cloneIsIndependent() {
+        IntArrayHeapQueue queue = new IntArrayHeapQueue(IntComparator.naturalOrder(), new int[]{3, 1, 2});
+        IntArrayHeapQueue clone = queue.clone();
+        assertEquals(queue, clone);
+        assertEquals(queue.hashCode(), clone.hashCode());
+        clone.poll();
+        assertEquals(3, queue.size());
+        assertEquals("[1, 3, 2]", queue.toString());
+    }
+
+    @Test
+    void addAllMergesIntoHeap() {
+        int[] values = new Random(2).ints(500, 0, 1000).toArray();
+        IntArrayHeapQueue queue = new IntArrayHeapQueue(IntComparator.naturalOrder(), Arrays.copyOf(values, 400));
+        assertTrue(queue.addAll(Arrays.copyOfRange(values, 400, 410)));
+        assertTrue(queue.addAll(Arrays.copyOfRange(values, 410, 500)));
+        assertFalse(queue.addAll(new int[0]));
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        assertArrayEquals(sorted, drain(queue));
+    }
+}
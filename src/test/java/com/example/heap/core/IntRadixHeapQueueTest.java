@@ -0,0 +1,68 @@
+package com.example.heap.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntRadixHeapQueueTest {
+
+    @Test
+    void pollsInOrderAcrossTheSignBoundary() {
+        int[] values = new Random(1).ints(5000).toArray();
+        IntRadixHeapQueue queue = new IntRadixHeapQueue();
+        for (int value : values) {
+            queue.offer(value);
+        }
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int[] polled = new int[values.length];
+        for (int i = 0; i < polled.length; i++) {
+            polled[i] = queue.poll();
+        }
+        assertArrayEquals(sorted, polled);
+        assertThrows(NoSuchElementException.class, queue::peek);
+    }
+
+    @Test
+    void rejectsKeysBelowTheLastMinimum() {
+        IntRadixHeapQueue queue = new IntRadixHeapQueue();
+        queue.offer(Integer.MAX_VALUE);
+        queue.offer(-5);
+        assertEquals(-5, queue.poll());
+        assertThrows(IllegalArgumentException.class, () -> queue.offer(-6));
+        queue.offer(-5);
+        assertEquals(-5, queue.poll());
+        assertEquals(Integer.MAX_VALUE, queue.poll());
+        queue.clear();
+        assertTrue(queue.offer(Integer.MIN_VALUE));
+        assertEquals(Integer.MIN_VALUE, queue.peek());
+    }
+
+    @Test
+    void indexOperationsRemoveIfAndClone() {
+        IntRadixHeapQueue queue = new IntRadixHeapQueue();
+        for (int e = -50; e < 50; e++) {
+            queue.offer(e);
+        }
+        int index = queue.indexOf(7);
+        assertEquals(7, queue.get(index));
+        assertEquals(7, queue.remove(index));
+        assertFalse(queue.contains(7));
+        IntRadixHeapQueue clone = queue.clone();
+        assertEquals(queue, clone);
+        assertTrue(queue.removeIf(e -> e < 0));
+        int[] sum = {0};
+        queue.forEach(e -> sum[0] += e);
+        assertEquals(49 * 50 / 2 - 7, sum[0]);
+        assertEquals(-50, clone.poll());
+        assertEquals("[]", new IntRadixHeapQueue().toString());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.heap.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KWayMergerTest {
+
+    private static List<List<Integer>> sortedSources(int k, long seed) {
+        Random random = new Random(seed);
+        List<List<Integer>> sources = new ArrayList<>(k);
+        for (int i = 0; i < k; i++) {
+            List<Integer> source = new ArrayList<>();
+            random.ints(random.nextInt(50), 0, 100).sorted().forEach(source::add);
+            sources.add(source);
+        }
+        return sources;
+    }
+
+    @Test
+    void mergesInComparatorOrder() {
+        for (int k = 0; k <= 17; k++) {
+            List<List<Integer>> sources = sortedSources(k, k);
+            List<Iterator<Integer>> iterators = new ArrayList<>();
+            List<Integer> expected = new ArrayList<>();
+            for (List<Integer> source : sources) {
+                iterators.add(source.iterator());
+                expected.addAll(source);
+            }
+            Collections.sort(expected);
+            List<Integer> merged = new ArrayList<>();
+            new KWayMerger<>(Comparator.<Integer>naturalOrder(), iterators).forEachRemaining(merged::add);
+            assertEquals(expected, merged);
+        }
+    }
+
+    @Test
+    void equalElementsComeOutInSourceOrder() {
+        String a = new String("x");
+        String b = new String("x");
+        String c = new String("x");
+        KWayMerger<String> merger = KWayMerger.of(Comparator.naturalOrder(),
+                List.of(a).iterator(), List.of(b).iterator(), List.of(c).iterator());
+        assertSame(a, merger.next());
+        assertSame(b, merger.next());
+        assertSame(c, merger.next());
+        assertFalse(merger.hasNext());
+        assertThrows(NoSuchElementException.class, merger::next);
+    }
+
+    @Test
+    void primitiveMergers() {
+        List<List<Integer>> sources = sortedSources(5, 3);
+        List<PrimitiveIterator.OfInt> ints = new ArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (List<Integer> source : sources) {
+            ints.add(source.stream().mapToInt(Integer::intValue).iterator());
+            expected.addAll(source);
+        }
+        int[] sorted = expected.stream().mapToInt(Integer::intValue).sorted().toArray();
+        KWayMerger.OfInt intMerger = new KWayMerger.OfInt(IntComparator.naturalOrder(), ints);
+        int[] mergedInts = new int[sorted.length];
+        for (int i = 0; i < mergedInts.length; i++) {
+            mergedInts[i] = intMerger.nextInt();
+        }
+        assertFalse(intMerger.hasNext());
+        assertArrayEquals(sorted, mergedInts);
+
+        KWayMerger.OfLong longMerger = new KWayMerger.OfLong(LongComparator.reverseOrder(),
+                List.of(Arrays.stream(new long[]{9, 5, 1}).iterator(), Arrays.stream(new long[]{8, 5, 2}).iterator()));
+        long[] mergedLongs = new long[6];
+        for (int i = 0; i < mergedLongs.length; i++) {
+            mergedLongs[i] = longMerger.nextLong();
+        }
+        assertArrayEquals(new long[]{9, 8, 5, 5, 2, 1}, mergedLongs);
+        assertThrows(NoSuchElementException.class, longMerger::nextLong);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.heap.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongArrayHeapQueueTest {
+
+    private static long[] drain(LongArrayHeapQueue queue) {
+        long[] array = new long[queue.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = queue.poll();
+        }
+        return array;
+    }
+
+    @Test
+    void pollsInComparatorOrder() {
+        long[] values = new Random(1).longs(1000, -500, 500).toArray();
+        LongArrayHeapQueue queue = new LongArrayHeapQueue();
+        for (long value : values) {
+            queue.offer(value);
+        }
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        assertArrayEquals(sorted, drain(queue));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void reversedComparator() {
+        LongArrayHeapQueue queue = new LongArrayHeapQueue(LongComparator.reverseOrder(), new long[]{3, 1, 4, 1, 5});
+        assertArrayEquals(new long[]{5, 4, 3, 1, 1}, drain(queue));
+    }
+
+    @Test
+    void emptyQueueThrows() {
+        LongArrayHeapQueue queue = new LongArrayHeapQueue();
+        assertThrows(NoSuchElementException.class, queue::peek);
+        assertThrows(NoSuchElementException.class, queue::poll);
+        assertThrows(IndexOutOfBoundsException.class, () -> queue.get(0));
+    }
+
+    @Test
+    void removeKeepsHeapOrder() {
+        LongArrayHeapQueue queue = new LongArrayHeapQueue(LongComparator.naturalOrder(), new long[]{9, 2, 7, 4, 5, 1, 8});
+        assertEquals(7, queue.remove(queue.indexOf(7)));
+        assertFalse(queue.contains(7));
+        assertArrayEquals(new long[]{1, 2, 4, 5, 8, 9}, drain(queue));
+    }
+
+    @Test
+    void removeIfKeepsRemainingElements() {
+        LongArrayHeapQueue queue = new LongArrayHeapQueue(LongComparator.naturalOrder(), new long[]{6, 3, 8, 1, 9, 2});
+        assertTrue(queue.removeIf(e -> e % 2 == 0));
+        assertFalse(queue.removeIf(e -> e > 100));
+        assertArrayEquals(new long[]{1, 3, 9}, drain(queue));
+    }
+
+    @Test
+    void cloneIsIndependent() {
+        LongArrayHeapQueue queue = new LongArrayHeapQueue(LongComparator.naturalOrder(), new long[]{3, 1, 2});
+        LongArrayHeapQueue clone = queue.clone();
+        assertEquals(queue, clone);
+        assertEquals(queue.hashCode(), clone.hashCode());
+        clone.poll();
+        assertEquals(3, queue.size());
+        assertEquals("[1, 3, 2]", queue.toString());
+    }
+}
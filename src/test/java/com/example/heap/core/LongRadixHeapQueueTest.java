@@ -0,0 +1,78 @@
+package com.example.heap.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongRadixHeapQueueTest {
+
+    @Test
+    void pollsInOrderAcrossTheSignBoundary() {
+        long[] values = new Random(1).longs(5000).toArray();
+        LongRadixHeapQueue queue = new LongRadixHeapQueue();
+        for (long value : values) {
+            queue.offer(value);
+        }
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        long[] polled = new long[values.length];
+        for (int i = 0; i < polled.length; i++) {
+            polled[i] = queue.poll();
+        }
+        assertArrayEquals(sorted, polled);
+        assertThrows(NoSuchElementException.class, queue::poll);
+    }
+
+    //  a monotone queue: offers interleaved with polls, never below the last minimum
+    @Test
+    void monotoneOffersBetweenPolls() {
+        Random random = new Random(2);
+        LongRadixHeapQueue queue = new LongRadixHeapQueue();
+        LongArrayHeapQueue reference = new LongArrayHeapQueue();
+        long floor = Long.MIN_VALUE;
+        for (int i = 0; i < 10_000; i++) {
+            if (!queue.isEmpty() && random.nextBoolean()) {
+                floor = queue.poll();
+                assertEquals(reference.poll(), floor);
+            } else {
+                long e = floor + random.nextInt(1 << 20);
+                queue.offer(e);
+                reference.offer(e);
+            }
+        }
+        assertEquals(reference.size(), queue.size());
+        long last = queue.peek();
+        assertThrows(IllegalArgumentException.class, () -> queue.offer(last - 1));
+        queue.clear();
+        assertTrue(queue.offer(Long.MIN_VALUE));
+    }
+
+    @Test
+    void indexOperationsRemoveIfAndClone() {
+        LongRadixHeapQueue queue = new LongRadixHeapQueue();
+        for (long e = -50; e < 50; e++) {
+            queue.offer(e * 1000);
+        }
+        int index = queue.indexOf(7000);
+        assertEquals(7000, queue.get(index));
+        assertEquals(7000, queue.remove(index));
+        assertFalse(queue.contains(7000));
+        assertThrows(IndexOutOfBoundsException.class, () -> queue.get(queue.size()));
+        LongRadixHeapQueue clone = queue.clone();
+        assertEquals(queue, clone);
+        assertEquals(queue.hashCode(), clone.hashCode());
+        assertTrue(queue.removeIf(e -> e < 0));
+        assertEquals(49, queue.size());
+        assertEquals(0, queue.poll());
+        assertEquals(99, clone.size());
+        assertEquals(-50_000, clone.poll());
+    }
+}
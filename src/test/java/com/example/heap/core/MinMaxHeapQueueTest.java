@@ -0,0 +1,71 @@
+package com.example.heap.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MinMaxHeapQueueTest {
+
+    @Test
+    void pollsFromBothEnds() {
+        List<Integer> list = ArrayHeapQueueTest.randomList(1001, 1);
+        MinMaxHeapQueue<Integer> queue = new MinMaxHeapQueue<>(Comparator.naturalOrder(), list);
+        List<Integer> sorted = ArrayHeapQueueTest.sorted(list);
+        int low = 0;
+        int high = sorted.size() - 1;
+        Random random = new Random(2);
+        while (!queue.isEmpty()) {
+            if (random.nextBoolean()) {
+                assertEquals(sorted.get(low), queue.peekFirst());
+                assertEquals(sorted.get(low++), queue.pollFirst());
+            } else {
+                assertEquals(sorted.get(high), queue.peekLast());
+                assertEquals(sorted.get(high--), queue.pollLast());
+            }
+        }
+        assertNull(queue.pollFirst());
+        assertNull(queue.pollLast());
+        assertNull(queue.peekLast());
+    }
+
+    @Test
+    void offersKeepBothEnds() {
+        MinMaxHeapQueue<Integer> queue = new MinMaxHeapQueue<>(Comparator.naturalOrder());
+        List<Integer> offered = new ArrayList<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 2000; i++) {
+            int e = random.nextInt(500);
+            queue.offer(e);
+            offered.add(e);
+            if (i % 7 == 0) {
+                List<Integer> sorted = ArrayHeapQueueTest.sorted(offered);
+                assertEquals(sorted.get(0), queue.peekFirst());
+                assertEquals(sorted.get(sorted.size() - 1), queue.peekLast());
+            }
+        }
+        assertEquals(ArrayHeapQueueTest.sorted(offered), ArrayHeapQueueTest.drain(queue));
+    }
+
+    @Test
+    void removeAnyIndexAndRemoveIf() {
+        List<Integer> list = ArrayHeapQueueTest.randomList(500, 4);
+        MinMaxHeapQueue<Integer> queue = new MinMaxHeapQueue<>(Comparator.reverseOrder(), list.toArray(new Integer[0]));
+        List<Integer> expected = new ArrayList<>(list);
+        Random random = new Random(5);
+        for (int i = 0; i < 100; i++) {
+            expected.remove(queue.remove(random.nextInt(queue.size())));
+        }
+        queue.removeIf(e -> e % 5 == 0);
+        expected.removeIf(e -> e % 5 == 0);
+        MinMaxHeapQueue<Integer> clone = queue.clone();
+        expected.sort(Comparator.reverseOrder());
+        assertEquals(expected, ArrayHeapQueueTest.drain(queue));
+        assertEquals(expected.get(expected.size() - 1), clone.pollLast());
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.heap.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MultiQueueTest {
+
+    @Test
+    void singleThreadDrainsEveryElement() {
+        MultiQueue<Integer> queue = new MultiQueue<>(Comparator.naturalOrder(), 4);
+        for (int i = 0; i < 1000; i++) {
+            queue.offer(i);
+        }
+        assertEquals(1000, queue.size());
+        assertEquals(0, queue.peek());
+        List<Integer> polled = new ArrayList<>();
+        Integer e;
+        while ((e = queue.poll()) != null) {
+            polled.add(e);
+        }
+        polled.sort(null);
+        assertEquals(1000, polled.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, polled.get(i));
+        }
+        assertTrue(queue.isEmpty());
+        assertNull(queue.peek());
+    }
+
+    //  the rank error of a two-choice poll is small on average, far below a random pick
+    @Test
+    void rankErrorStaysSmall() {
+        MultiQueue<Integer> queue = new MultiQueue<>(Comparator.naturalOrder(), 8);
+        for (int i = 0; i < 10_000; i++) {
+            queue.offer(i);
+        }
+        long total = 0;
+        int samples = 1000;
+        for (int i = 0; i < samples; i++) {
+            total += queue.rankError(queue.poll());
+        }
+        assertTrue(total / samples < 100, "mean rank error " + total / samples);
+    }
+
+    @Test
+    void concurrentConsumersSeeEveryElementOnce() throws Exception {
+        MultiQueue<Integer> queue = new MultiQueue<>(Comparator.naturalOrder(), 4);
+        for (int i = 0; i < 20_000; i++) {
+            queue.offer(i);
+        }
+        ConcurrentLinkedQueue<Integer> polled = new ConcurrentLinkedQueue<>();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                Integer e;
+                while ((e = queue.poll()) != null) {
+                    polled.add(e);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(20_000, polled.size());
+        assertEquals(20_000, polled.stream().distinct().count());
+    }
+
+    @Test
+    void rejectsBadArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new MultiQueue<Integer>(Comparator.naturalOrder(), 1));
+        MultiQueue<Integer> queue = new MultiQueue<>(Comparator.naturalOrder(), 2);
+        assertThrows(NullPointerException.class, () -> queue.offer(null));
+        queue.offer(1);
+        queue.clear();
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.heap.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapLongHeapQueueTest {
+
+    //  records of one chunk, 64 MB of file or direct memory
+    private static final long CHUNK_RECORDS = 1L << 22;
+
+    private static void pollsRecordsInKeyOrder(OffHeapLongHeapQueue queue) {
+        long[] keys = new Random(1).longs(1000, -500, 500).toArray();
+        for (int i = 0; i < keys.length; i++) {
+            queue.offer(keys[i], keys[i] * 2);
+        }
+        long[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        for (long key : sorted) {
+            assertEquals(key, queue.peekKey());
+            assertEquals(key * 2, queue.peekPayload());
+            assertEquals(key, key % 2 == 0 ? queue.pollKey() : queue.pollPayload() / 2);
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void directPollsInKeyOrder() throws IOException {
+        try (OffHeapLongHeapQueue queue = OffHeapLongHeapQueue.direct(LongComparator.naturalOrder())) {
+            pollsRecordsInKeyOrder(queue);
+        }
+    }
+
+    @Test
+    void mappedPollsInKeyOrder(@TempDir Path dir) throws IOException {
+        try (OffHeapLongHeapQueue queue = OffHeapLongHeapQueue.mapped(LongComparator.naturalOrder(), dir.resolve("heap"))) {
+            pollsRecordsInKeyOrder(queue);
+        }
+    }
+
+    @Test
+    void emptyQueueThrows() throws IOException {
+        try (OffHeapLongHeapQueue queue = OffHeapLongHeapQueue.direct(LongComparator.naturalOrder())) {
+            assertThrows(NoSuchElementException.class, queue::peekKey);
+            assertThrows(NoSuchElementException.class, queue::pollKey);
+            assertThrows(NoSuchElementException.class, queue::pollPayload);
+            assertThrows(IndexOutOfBoundsException.class, () -> queue.remove(0));
+        }
+    }
+
+    @Test
+    void removeKeepsHeapOrder() throws IOException {
+        try (OffHeapLongHeapQueue queue = OffHeapLongHeapQueue.direct(LongComparator.reverseOrder())) {
+            long[] keys = {9, 2, 7, 4, 5, 1, 8};
+            for (long key : keys) {
+                queue.offer(key, -key);
+            }
+            for (long i = 0; i < queue.size(); i++) {
+                if (queue.getKey(i) == 7) {
+                    queue.remove(i);
+                }
+            }
+            long[] polled = new long[(int) queue.size()];
+            for (int i = 0; i < polled.length; i++) {
+                assertEquals(-queue.peekKey(), queue.peekPayload());
+                polled[i] = queue.pollKey();
+            }
+            assertArrayEquals(new long[]{9, 8, 5, 4, 2, 1}, polled);
+        }
+    }
+
+    @Test
+    void trimToSizeTruncatesMappedFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("heap");
+        try (OffHeapLongHeapQueue queue = OffHeapLongHeapQueue.mapped(LongComparator.naturalOrder(), file)) {
+            queue.offer(1, 1);
+            queue.ensureCapacity(CHUNK_RECORDS + 1);
+            assertEquals(2 * CHUNK_RECORDS, queue.capacity());
+            assertEquals(2 * CHUNK_RECORDS * 16, Files.size(file));
+            queue.trimToSize();
+            assertEquals(CHUNK_RECORDS, queue.capacity());
+            assertEquals(CHUNK_RECORDS * 16, Files.size(file));
+            assertEquals(1, queue.pollKey());
+            queue.trimToSize();
+            assertEquals(0, queue.capacity());
+            assertEquals(0, Files.size(file));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.heap.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PairingHeapQueueTest {
+
+    @Test
+    void pollsInComparatorOrder() {
+        List<Integer> list = ArrayHeapQueueTest.randomList(2000, 1);
+        PairingHeapQueue<Integer> queue = new PairingHeapQueue<>(Comparator.naturalOrder());
+        list.forEach(queue::offer);
+        assertEquals(list.size(), queue.size());
+        assertEquals(ArrayHeapQueueTest.sorted(list), ArrayHeapQueueTest.drain(queue));
+        assertNull(queue.poll());
+    }
+
+    @Test
+    void handlesFollowUpdatesAndRemovals() {
+        PairingHeapQueue<Integer> queue = new PairingHeapQueue<>(Comparator.naturalOrder());
+        List<HeapHandle<Integer>> handles = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            handles.add(queue.insert(i * 10));
+        }
+        handles.get(50).update(-1);
+        assertEquals(-1, queue.peek());
+        handles.get(50).update(5000);
+        assertEquals(0, queue.peek());
+        assertTrue(handles.get(0).remove());
+        assertFalse(handles.get(0).isValid());
+        assertFalse(handles.get(0).remove());
+        assertThrows(IllegalStateException.class, () -> handles.get(0).update(1));
+        assertEquals(10, queue.poll());
+        assertFalse(handles.get(1).isValid());
+        List<Integer> polled = ArrayHeapQueueTest.drain(queue);
+        assertEquals(98, polled.size());
+        assertEquals(5000, polled.get(polled.size() - 1));
+    }
+
+    @Test
+    void meldMovesElementsAndHandles() {
+        PairingHeapQueue<Integer> a = new PairingHeapQueue<>(Comparator.naturalOrder());
+        PairingHeapQueue<Integer> b = new PairingHeapQueue<>(Comparator.naturalOrder());
+        a.offer(5);
+        a.offer(1);
+        HeapHandle<Integer> handle = b.insert(7);
+        b.offer(3);
+        a.meld(b);
+        assertTrue(b.isEmpty());
+        assertEquals(4, a.size());
+        handle.update(0);
+        assertEquals(0, a.peek());
+        assertTrue(handle.remove());
+        assertEquals(List.of(1, 3, 5), ArrayHeapQueueTest.drain(a));
+        assertThrows(IllegalArgumentException.class, () -> a.meld(a));
+    }
+
+    @Test
+    void indexOperationsAndRemoveIf() {
+        List<Integer> list = ArrayHeapQueueTest.randomList(500, 2);
+        PairingHeapQueue<Integer> queue = new PairingHeapQueue<>(Comparator.naturalOrder());
+        list.forEach(queue::offer);
+        Integer element = list.get(123);
+        int index = queue.indexOf(element);
+        assertEquals(element, queue.get(index));
+        assertEquals(element, queue.remove(index));
+        assertTrue(queue.removeIf(e -> e % 2 == 0));
+        List<Integer> expected = new ArrayList<>(list);
+        expected.remove(123);
+        expected.removeIf(e -> e % 2 == 0);
+        assertEquals(ArrayHeapQueueTest.sorted(expected), ArrayHeapQueueTest.drain(queue));
+    }
+
+    @Test
+    void deepDecreasesStayOrdered() {
+        Random random = new Random(3);
+        PairingHeapQueue<Integer> queue = new PairingHeapQueue<>(Comparator.naturalOrder());
+        List<HeapHandle<Integer>> handles = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            handles.add(queue.insert(random.nextInt(100_000)));
+        }
+        queue.poll();
+        List<Integer> expected = new ArrayList<>();
+        for (HeapHandle<Integer> handle : handles) {
+            if (handle.isValid()) {
+                handle.update(handle.get() - random.nextInt(1000));
+                expected.add(handle.get());
+            }
+        }
+        assertEquals(ArrayHeapQueueTest.sorted(expected), ArrayHeapQueueTest.drain(queue));
+    }
+}
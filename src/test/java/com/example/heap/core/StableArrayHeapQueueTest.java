@@ -0,0 +1,80 @@
+package com.example.heap.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StableArrayHeapQueueTest {
+
+    //  a key with the order it was offered in, only the key is compared
+    private static final class Entry {
+
+        final int key;
+
+        final int order;
+
+        Entry(int key, int order) {
+            this.key = key;
+            this.order = order;
+        }
+    }
+
+    private static final Comparator<Entry> BY_KEY = Comparator.comparingInt(e -> e.key);
+
+    private static final Comparator<Entry> STABLE = BY_KEY.thenComparingInt(e -> e.order);
+
+    private static List<Entry> entries(int size, long seed) {
+        Random random = new Random(seed);
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            entries.add(new Entry(random.nextInt(10), i));
+        }
+        return entries;
+    }
+
+    @Test
+    void equalKeysLeaveInInsertionOrder() {
+        List<Entry> entries = entries(2000, 1);
+        StableArrayHeapQueue<Entry> queue = new StableArrayHeapQueue<>(BY_KEY);
+        entries.forEach(queue::offer);
+        entries.sort(STABLE);
+        assertEquals(entries, ArrayHeapQueueTest.drain(queue));
+    }
+
+    @Test
+    void bulkConstructorsNumberInArrayOrder() {
+        List<Entry> entries = entries(1000, 2);
+        StableArrayHeapQueue<Entry> fromCollection = new StableArrayHeapQueue<>(BY_KEY, entries);
+        StableArrayHeapQueue<Entry> fromArray = new StableArrayHeapQueue<>(BY_KEY, entries.toArray(new Entry[0]));
+        fromCollection.offer(new Entry(0, entries.size()));
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(STABLE);
+        assertEquals(sorted, ArrayHeapQueueTest.drain(fromArray));
+        List<Entry> polled = ArrayHeapQueueTest.drain(fromCollection);
+        for (int i = 1; i < polled.size(); i++) {
+            assertEquals(-1, Integer.signum(STABLE.compare(polled.get(i - 1), polled.get(i))));
+        }
+    }
+
+    @Test
+    void removalsKeepInsertionOrder() {
+        List<Entry> entries = entries(1000, 3);
+        StableArrayHeapQueue<Entry> queue = new StableArrayHeapQueue<>(BY_KEY, 16);
+        entries.forEach(queue::offer);
+        Random random = new Random(4);
+        for (int i = 0; i < 200; i++) {
+            entries.remove(queue.remove(random.nextInt(queue.size())));
+        }
+        queue.removeIf(e -> e.order % 3 == 0);
+        entries.removeIf(e -> e.order % 3 == 0);
+        StableArrayHeapQueue<Entry> clone = queue.clone();
+        entries.sort(STABLE);
+        assertEquals(entries, ArrayHeapQueueTest.drain(queue));
+        assertEquals(entries, ArrayHeapQueueTest.drain(clone));
+    }
+}
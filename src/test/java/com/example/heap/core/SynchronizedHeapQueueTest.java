@@ -0,0 +1,95 @@
+package com.example.heap.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SynchronizedHeapQueueTest {
+
+    private static ArrayHeapQueue<Integer> queueOf(Integer... values) {
+        return new ArrayHeapQueue<>(Comparator.naturalOrder(), values);
+    }
+
+    @Test
+    void equalsIsSymmetric() {
+        ArrayHeapQueue<Integer> queue = queueOf(1, 2, 3);
+        SynchronizedHeapQueue<Integer> wrapper = new SynchronizedHeapQueue<>(queue);
+        assertNotEquals(wrapper, queue);
+        assertNotEquals(queue, wrapper);
+
+        SynchronizedHeapQueue<Integer> other = new SynchronizedHeapQueue<>(queueOf(1, 2, 3));
+        assertEquals(wrapper, other);
+        assertEquals(other, wrapper);
+        assertEquals(wrapper.hashCode(), other.hashCode());
+        assertNotEquals(wrapper, new SynchronizedHeapQueue<>(queueOf(1, 2)));
+    }
+
+    @Test
+    void crossEqualsDoesNotDeadlock() throws Exception {
+        SynchronizedHeapQueue<Integer> a = new SynchronizedHeapQueue<>(queueOf(1, 2, 3));
+        SynchronizedHeapQueue<Integer> b = new SynchronizedHeapQueue<>(queueOf(1, 2, 3));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            Future<?> ab = executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 100_000; i++) {
+                    assertTrue(a.equals(b));
+                }
+                return null;
+            });
+            Future<?> ba = executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 100_000; i++) {
+                    assertTrue(b.equals(a));
+                }
+                return null;
+            });
+            start.countDown();
+            ab.get(30, TimeUnit.SECONDS);
+            ba.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentOffersAreNotLost() throws Exception {
+        SynchronizedHeapQueue<Integer> queue = new SynchronizedHeapQueue<>(queueOf());
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int base = t * 10_000;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    queue.offer(base + i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40_000, queue.size());
+        for (int i = 0; i < 40_000; i++) {
+            assertEquals(i, queue.poll());
+        }
+    }
+
+    @Test
+    void rejectsNullArguments() {
+        assertThrows(NullPointerException.class, () -> new SynchronizedHeapQueue<>(null));
+        assertThrows(NullPointerException.class, () -> new SynchronizedHeapQueue<>(queueOf(), null));
+        assertEquals(List.of(), ArrayHeapQueueTest.drain(new SynchronizedHeapQueue<>(queueOf())));
+    }
+}